@@ -0,0 +1,72 @@
+package floodfill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+// Vazão de empilhar/enfileirar e remover: "quantidade" inserções seguidas de "quantidade" remoções
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class EstruturaBenchmark {
+    @Param({"PilhaPixel", "FilaPixel", "PilhaPixelCompacta", "FilaPixelCompacta"})
+    public String estrutura;
+
+    @Param({"1024", "65536", "1048576"})
+    public int quantidade;
+
+    private MethodHandle construtor;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        construtor = Motores.construtorEstrutura(estrutura);
+    }
+
+    // Caminho com objetos Pixel (adicionar(Pixel) / remover())
+    @Benchmark
+    public long objetos() throws Throwable {
+        Object pilhaOuFila = (Object) construtor.invokeExact();
+
+        for (int i = 0; i < quantidade; i++) {
+            Object pixel = (Object) Motores.NOVO_PIXEL.invokeExact(i, i >> 8);
+            Motores.ADICIONAR_PIXEL.invokeExact(pilhaOuFila, pixel);
+        }
+
+        long soma = 0;
+        while (!(boolean) Motores.ESTA_VAZIA.invokeExact(pilhaOuFila)) {
+            Object pixel = (Object) Motores.REMOVER_PIXEL.invokeExact(pilhaOuFila);
+            soma += (int) Motores.PIXEL_X.invokeExact(pixel);
+        }
+        return soma;
+    }
+
+    // Caminho primitivo (adicionar(x, y) / removerPacked()), o usado pelo FloodFillAlgoritmo
+    @Benchmark
+    public long empacotado() throws Throwable {
+        Object pilhaOuFila = (Object) construtor.invokeExact();
+
+        for (int i = 0; i < quantidade; i++) {
+            Motores.ADICIONAR_COORDENADAS.invokeExact(pilhaOuFila, i, i >> 8);
+        }
+
+        long soma = 0;
+        while (!(boolean) Motores.ESTA_VAZIA.invokeExact(pilhaOuFila)) {
+            soma += (long) Motores.REMOVER_EMPACOTADO.invokeExact(pilhaOuFila);
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,20 @@
+package floodfill.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Ponto de entrada do benchmarks.jar: aceita as opções de linha de comando do JMH
+// e sempre liga o profiler de GC/alocação (-prof gc)
+public class ExecutarBenchmarks {
+    public static void main(String[] args) throws Exception {
+        Options opcoes = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opcoes).run();
+    }
+}
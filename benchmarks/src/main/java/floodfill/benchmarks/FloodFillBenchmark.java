@@ -0,0 +1,81 @@
+package floodfill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Preenchimento completo em modo silencioso: sem console, sem frames e sem PNG final.
+// Cada chamada copia a matriz base antes de pintar; "copiaDaMatriz" mede só essa cópia.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class FloodFillBenchmark {
+    private static final int VERMELHO = 0xFFFF0000;
+
+    @Param({"64", "512", "2048"})
+    public int tamanho;
+
+    @Param({"VAZIA", "SERPENTINA", "RUIDO"})
+    public String forma;
+
+    private int[][] base;
+    private int x;
+    private int y;
+    private Object processador;
+
+    @Setup
+    public void preparar() throws Throwable {
+        base = Imagens.criar(forma, tamanho);
+        int[] semente = Imagens.semente(base);
+        x = semente[0];
+        y = semente[1];
+        processador = (Object) Motores.NOVO_PROCESSADOR.invokeExact(
+                Files.createTempDirectory("floodfill-bench").toString());
+    }
+
+    @Benchmark
+    public int[][] copiaDaMatriz() {
+        return Imagens.copiar(base);
+    }
+
+    @Benchmark
+    public int[][] pilha() throws Throwable {
+        int[][] matriz = Imagens.copiar(base);
+        Motores.PREENCHER_COM_PILHA.invokeExact(novoAlgoritmo(matriz), x, y, VERMELHO);
+        return matriz;
+    }
+
+    @Benchmark
+    public int[][] fila() throws Throwable {
+        int[][] matriz = Imagens.copiar(base);
+        Motores.PREENCHER_COM_FILA.invokeExact(novoAlgoritmo(matriz), x, y, VERMELHO);
+        return matriz;
+    }
+
+    @Benchmark
+    public int[][] scanline() throws Throwable {
+        int[][] matriz = Imagens.copiar(base);
+        Motores.PREENCHER_COM_SCANLINE.invokeExact(novoAlgoritmo(matriz), x, y, VERMELHO);
+        return matriz;
+    }
+
+    private Object novoAlgoritmo(int[][] matriz) throws Throwable {
+        Object algoritmo = (Object) Motores.NOVO_ALGORITMO.invokeExact(matriz, processador);
+        Motores.DEFINIR_SILENCIOSO.invokeExact(algoritmo, true);
+        return algoritmo;
+    }
+}
@@ -0,0 +1,72 @@
+package floodfill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Leitura e gravação de PNG e busca do ponto inicial, com as mensagens de console descartadas
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx2g", "-Djava.awt.headless=true"})
+public class ImagemBenchmark {
+    @Param({"256", "1024", "2048"})
+    public int tamanho;
+
+    @Param({"VAZIA", "RUIDO", "ESCURA"})
+    public String forma;
+
+    private int[][] matriz;
+    private String caminhoPNG;
+    private Object processador;
+
+    @Setup
+    public void preparar() throws Throwable {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        matriz = Imagens.criar(forma, tamanho);
+        File diretorio = Files.createTempDirectory("floodfill-bench").toFile();
+        processador = (Object) Motores.NOVO_PROCESSADOR.invokeExact(diretorio.getPath());
+
+        BufferedImage imagem = new BufferedImage(tamanho, tamanho, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < tamanho; y++) {
+            imagem.setRGB(0, y, tamanho, 1, matriz[y], 0, tamanho);
+        }
+        File arquivo = new File(diretorio, "entrada.png");
+        ImageIO.write(imagem, "PNG", arquivo);
+        caminhoPNG = arquivo.getPath();
+    }
+
+    @Benchmark
+    public int[][] carregarImagem() throws Throwable {
+        return (int[][]) Motores.CARREGAR_IMAGEM.invokeExact(processador, caminhoPNG);
+    }
+
+    @Benchmark
+    public void salvarImagemFinal() throws Throwable {
+        Motores.SALVAR_IMAGEM_FINAL.invokeExact(processador, matriz, "benchmark");
+    }
+
+    @Benchmark
+    public int[] encontrarPixelBrancoEmAreaFechada() throws Throwable {
+        return (int[]) Motores.ENCONTRAR_AREA_FECHADA.invokeExact(processador, matriz);
+    }
+}
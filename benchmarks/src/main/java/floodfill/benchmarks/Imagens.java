@@ -0,0 +1,89 @@
+package floodfill.benchmarks;
+
+import java.util.Random;
+
+// Matrizes de entrada dos benchmarks, nas cores quantizadas que o projeto usa
+final class Imagens {
+    static final int BRANCO = 0xFFFFFFFF;
+    static final int PRETO = 0xFF000000;
+
+    private Imagens() {
+    }
+
+    static int[][] criar(String forma, int tamanho) {
+        int[][] matriz = new int[tamanho][tamanho];
+
+        switch (forma) {
+            // Fundo branco com moldura preta: uma única região enorme
+            case "VAZIA" -> {
+                preencher(matriz, BRANCO);
+                moldura(matriz);
+            }
+            // Paredes horizontais a cada 4 linhas com a passagem alternando de lado: corredor em zigue-zague
+            case "SERPENTINA" -> {
+                preencher(matriz, BRANCO);
+                for (int y = 3; y < tamanho; y += 4) {
+                    java.util.Arrays.fill(matriz[y], PRETO);
+                    matriz[y][(y / 4) % 2 == 0 ? tamanho - 2 : 1] = BRANCO;
+                }
+                moldura(matriz);
+            }
+            // 12% de pixels pretos espalhados: região branca conectada com muitas bordas
+            case "RUIDO" -> {
+                Random aleatorio = new Random(42);
+                for (int[] linha : matriz) {
+                    for (int x = 0; x < tamanho; x++) {
+                        linha[x] = aleatorio.nextInt(100) < 12 ? PRETO : BRANCO;
+                    }
+                }
+                moldura(matriz);
+            }
+            // Quase toda preta, com uma área branca só no canto inferior direito
+            case "ESCURA" -> {
+                preencher(matriz, PRETO);
+                for (int y = tamanho - tamanho / 8; y < tamanho - 1; y++) {
+                    java.util.Arrays.fill(matriz[y], tamanho - tamanho / 8, tamanho - 1, BRANCO);
+                }
+            }
+            default -> throw new IllegalArgumentException("Forma desconhecida: " + forma);
+        }
+
+        return matriz;
+    }
+
+    // Primeiro pixel branco encontrado, usado como ponto inicial dos preenchimentos
+    static int[] semente(int[][] matriz) {
+        for (int y = 0; y < matriz.length; y++) {
+            for (int x = 0; x < matriz[y].length; x++) {
+                if (matriz[y][x] == BRANCO) {
+                    return new int[]{x, y};
+                }
+            }
+        }
+        throw new IllegalArgumentException("Matriz sem pixels brancos");
+    }
+
+    static int[][] copiar(int[][] original) {
+        int[][] copia = new int[original.length][];
+        for (int y = 0; y < original.length; y++) {
+            copia[y] = original[y].clone();
+        }
+        return copia;
+    }
+
+    private static void preencher(int[][] matriz, int cor) {
+        for (int[] linha : matriz) {
+            java.util.Arrays.fill(linha, cor);
+        }
+    }
+
+    private static void moldura(int[][] matriz) {
+        int tamanho = matriz.length;
+        java.util.Arrays.fill(matriz[0], PRETO);
+        java.util.Arrays.fill(matriz[tamanho - 1], PRETO);
+        for (int[] linha : matriz) {
+            linha[0] = PRETO;
+            linha[tamanho - 1] = PRETO;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package floodfill.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// O JMH não aceita benchmarks no pacote padrão e as classes do projeto são package-private
+// no pacote padrão, então elas são acessadas por MethodHandles constantes (inlinados pelo JIT).
+final class Motores {
+    static final MethodHandle NOVO_PROCESSADOR;
+    static final MethodHandle CARREGAR_IMAGEM;
+    static final MethodHandle SALVAR_IMAGEM_FINAL;
+    static final MethodHandle ENCONTRAR_AREA_FECHADA;
+
+    static final MethodHandle NOVO_ALGORITMO;
+    static final MethodHandle DEFINIR_SILENCIOSO;
+    static final MethodHandle PREENCHER_COM_PILHA;
+    static final MethodHandle PREENCHER_COM_FILA;
+    static final MethodHandle PREENCHER_COM_SCANLINE;
+
+    static final MethodHandle NOVO_PIXEL;
+    static final MethodHandle PIXEL_X;
+    static final MethodHandle ADICIONAR_PIXEL;
+    static final MethodHandle REMOVER_PIXEL;
+    static final MethodHandle ADICIONAR_COORDENADAS;
+    static final MethodHandle REMOVER_EMPACOTADO;
+    static final MethodHandle ESTA_VAZIA;
+
+    static {
+        try {
+            Class<?> processador = Class.forName("ProcessadorImagem");
+            NOVO_PROCESSADOR = construtor(processador, String.class);
+            CARREGAR_IMAGEM = metodo(processador, "carregarImagem", int[][].class, String.class);
+            SALVAR_IMAGEM_FINAL = metodo(processador, "salvarImagemFinal", void.class, int[][].class, String.class);
+            ENCONTRAR_AREA_FECHADA = metodo(processador, "encontrarPixelBrancoEmAreaFechada", int[].class, int[][].class);
+
+            Class<?> algoritmo = Class.forName("FloodFillAlgoritmo");
+            NOVO_ALGORITMO = construtor(algoritmo, int[][].class, processador);
+            DEFINIR_SILENCIOSO = metodo(algoritmo, "setSilencioso", void.class, boolean.class);
+            PREENCHER_COM_PILHA = metodo(algoritmo, "preencherComPilha", void.class, int.class, int.class, int.class);
+            PREENCHER_COM_FILA = metodo(algoritmo, "preencherComFila", void.class, int.class, int.class, int.class);
+            PREENCHER_COM_SCANLINE = metodo(algoritmo, "preencherComScanline", void.class, int.class, int.class, int.class);
+
+            Class<?> pixel = Class.forName("Pixel");
+            Class<?> estrutura = Class.forName("EstruturaPixel");
+            NOVO_PIXEL = construtor(pixel, int.class, int.class);
+            PIXEL_X = metodo(pixel, "getX", int.class);
+            ADICIONAR_PIXEL = metodo(estrutura, "adicionar", void.class, pixel);
+            REMOVER_PIXEL = metodo(estrutura, "remover", pixel);
+            ADICIONAR_COORDENADAS = metodo(estrutura, "adicionar", void.class, int.class, int.class);
+            REMOVER_EMPACOTADO = metodo(estrutura, "removerPacked", long.class);
+            ESTA_VAZIA = metodo(estrutura, "estaVazia", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Motores() {
+    }
+
+    // Construtor sem argumentos de uma implementação de EstruturaPixel, pelo nome da classe
+    static MethodHandle construtorEstrutura(String nomeClasse) throws ReflectiveOperationException {
+        return construtor(Class.forName(nomeClasse));
+    }
+
+    // Os tipos do projeto viram Object na assinatura, para permitir invokeExact fora do pacote padrão
+    private static MethodHandle construtor(Class<?> classe, Class<?>... parametros) throws ReflectiveOperationException {
+        MethodHandle handle = acesso(classe).findConstructor(classe, MethodType.methodType(void.class, parametros));
+        return handle.asType(generalizar(handle.type()));
+    }
+
+    private static MethodHandle metodo(Class<?> classe, String nome, Class<?> retorno, Class<?>... parametros)
+            throws ReflectiveOperationException {
+        MethodHandle handle = acesso(classe).findVirtual(classe, nome, MethodType.methodType(retorno, parametros));
+        return handle.asType(generalizar(handle.type()));
+    }
+
+    private static MethodType generalizar(MethodType tipo) {
+        MethodType resultado = tipo.changeReturnType(visivel(tipo.returnType()));
+        for (int i = 0; i < tipo.parameterCount(); i++) {
+            resultado = resultado.changeParameterType(i, visivel(tipo.parameterType(i)));
+        }
+        return resultado;
+    }
+
+    // Classes do pacote padrão não podem ser nomeadas aqui; tipos do JDK e primitivos ficam como estão
+    private static Class<?> visivel(Class<?> tipo) {
+        return tipo.getPackageName().isEmpty() ? Object.class : tipo;
+    }
+
+    private static MethodHandles.Lookup acesso(Class<?> classe) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(classe, MethodHandles.lookup());
+    }
+}
@@ -0,0 +1,33 @@
+// Mapa de 1 bit por pixel sobre um vetor long[], usado para marcar pixels já enfileirados
+class BitsetPixels {
+    private final long[] bits;
+    private final int largura;
+
+    public BitsetPixels(int largura, int altura) {
+        this.largura = largura;
+        this.bits = new long[(int) (((long) largura * altura + 63) >>> 6)];
+    }
+
+    // Marca o pixel e retorna true apenas se ele ainda não estava marcado.
+    // O índice é long: imagens acima de 2^31 pixels estouram o int.
+    public boolean marcar(int x, int y) {
+        long indice = (long) y * largura + x;
+        long mascara = 1L << indice;
+        int palavra = (int) (indice >>> 6);
+
+        if ((bits[palavra] & mascara) != 0) {
+            return false;
+        }
+        bits[palavra] |= mascara;
+        return true;
+    }
+
+    public boolean contem(int x, int y) {
+        long indice = (long) y * largura + x;
+        return (bits[(int) (indice >>> 6)] & (1L << indice)) != 0;
+    }
+
+    public void limpar() {
+        java.util.Arrays.fill(bits, 0L);
+    }
+}
@@ -0,0 +1,232 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+// Arquivo ao lado do PNG com o raster já decodificado e quantizado, lido nas execuções seguintes
+// enquanto o PNG de origem não mudar.
+//
+// Cabeçalho (TAMANHO_CABECALHO bytes): assinatura "FFC1", versão do formato, versão da quantização,
+// largura, altura, data de modificação e tamanho do PNG, CRC32 do PNG e o histograma das cores
+// quantizadas. Em seguida, os pixels ARGB linha a linha.
+//
+// A leitura e a gravação usam FileChannel com um buffer em blocos, sem mapeamento: um arquivo mapeado
+// fica preso até o coletor liberar o buffer, e no Windows isso impede substituí-lo com o move atômico.
+class CacheRaster {
+    private static final int ASSINATURA = 0x46464331;
+    private static final int VERSAO_FORMATO = 2;
+    private static final int TAMANHO_CABECALHO = 128;
+    private static final String EXTENSAO = ".ffcache";
+    // Tamanho do buffer usado para ler e gravar os pixels (pelo menos uma linha)
+    private static final long BYTES_POR_BLOCO = 1L << 22;
+
+    // Ordem do histograma; qualquer outra cor conta como "outras"
+    public static final int[] CORES = {
+            GerenciarCores.obterCorBranca(), GerenciarCores.obterCorPreta(), GerenciarCores.obterCorVermelha(),
+            GerenciarCores.obterCorVerde(), GerenciarCores.obterCorAzul()
+    };
+    public static final int INDICE_OUTRAS = CORES.length;
+
+    private final File origem;
+    private final File arquivoCache;
+    private long[] histograma;
+
+    public CacheRaster(File origem) {
+        this.origem = origem;
+        this.arquivoCache = new File(origem.getParentFile(), origem.getName() + EXTENSAO);
+    }
+
+    public File getArquivoCache() {
+        return arquivoCache;
+    }
+
+    // Histograma lido do cache ou calculado em salvar()
+    public long[] getHistograma() {
+        return histograma;
+    }
+
+    // Retorna o raster do cache, ou null se ele não existir, estiver corrompido ou o PNG tiver mudado
+    public int[][] carregar() {
+        if (!arquivoCache.isFile()) {
+            return null;
+        }
+
+        try (RandomAccessFile arquivo = new RandomAccessFile(arquivoCache, "r");
+             FileChannel canal = arquivo.getChannel()) {
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            while (cabecalho.hasRemaining() && canal.read(cabecalho) >= 0) {
+                // Lê o cabeçalho inteiro
+            }
+            cabecalho.flip();
+
+            if (cabecalho.remaining() < TAMANHO_CABECALHO || cabecalho.getInt() != ASSINATURA) {
+                return null;
+            }
+            // Cache de outra versão do formato ou da quantização: descartado e gravado de novo
+            if (cabecalho.getInt() != VERSAO_FORMATO || cabecalho.getInt() != ProcessadorImagem.VERSAO_QUANTIZACAO) {
+                return null;
+            }
+
+            int largura = cabecalho.getInt();
+            int altura = cabecalho.getInt();
+            long modificacao = cabecalho.getLong();
+            long tamanho = cabecalho.getLong();
+            long crc = cabecalho.getLong();
+            long[] contagens = new long[CORES.length + 1];
+            for (int i = 0; i < contagens.length; i++) {
+                contagens[i] = cabecalho.getLong();
+            }
+
+            if (canal.size() != TAMANHO_CABECALHO + (long) largura * altura * Integer.BYTES) {
+                return null;
+            }
+
+            // Mesma data e tamanho: válido sem ler o PNG. Só a data mudou (cópia, touch): confere pelo CRC
+            if (tamanho != origem.length()) {
+                return null;
+            }
+            if (modificacao != origem.lastModified() && crc != calcularCrc(origem)) {
+                return null;
+            }
+
+            int[][] matriz = new int[altura][largura];
+            int linhasPorBloco = linhasPorBloco(largura, altura);
+            ByteBuffer bloco = alocarBloco(largura, linhasPorBloco);
+
+            for (int yInicio = 0; yInicio < altura; yInicio += linhasPorBloco) {
+                int linhas = Math.min(linhasPorBloco, altura - yInicio);
+                long posicao = TAMANHO_CABECALHO + (long) yInicio * largura * Integer.BYTES;
+
+                bloco.clear().limit(linhas * largura * Integer.BYTES);
+                while (bloco.hasRemaining()) {
+                    if (canal.read(bloco, posicao + bloco.position()) < 0) {
+                        return null;
+                    }
+                }
+                bloco.flip();
+
+                IntBuffer pixels = bloco.asIntBuffer();
+                for (int y = yInicio; y < yInicio + linhas; y++) {
+                    pixels.get(matriz[y]);
+                }
+            }
+
+            histograma = contagens;
+            return matriz;
+
+        } catch (IOException e) {
+            System.err.println("✗ Cache do raster ignorado: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Grava o cache em um arquivo temporário e o move no fim, para nunca deixar um cache pela metade
+    public void salvar(int[][] matriz) {
+        histograma = calcularHistograma(matriz);
+
+        int altura = matriz.length;
+        int largura = matriz[0].length;
+        File temporario = new File(arquivoCache.getPath() + ".tmp");
+
+        try {
+            long modificacao = origem.lastModified();
+            long tamanho = origem.length();
+            long crc = calcularCrc(origem);
+
+            try (RandomAccessFile arquivo = new RandomAccessFile(temporario, "rw");
+                 FileChannel canal = arquivo.getChannel()) {
+
+                arquivo.setLength(0);
+
+                ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+                cabecalho.putInt(ASSINATURA).putInt(VERSAO_FORMATO).putInt(ProcessadorImagem.VERSAO_QUANTIZACAO)
+                        .putInt(largura).putInt(altura)
+                        .putLong(modificacao).putLong(tamanho).putLong(crc);
+                for (long contagem : histograma) {
+                    cabecalho.putLong(contagem);
+                }
+                cabecalho.rewind();
+                while (cabecalho.hasRemaining()) {
+                    canal.write(cabecalho, cabecalho.position());
+                }
+
+                int linhasPorBloco = linhasPorBloco(largura, altura);
+                ByteBuffer bloco = alocarBloco(largura, linhasPorBloco);
+
+                for (int yInicio = 0; yInicio < altura; yInicio += linhasPorBloco) {
+                    int linhas = Math.min(linhasPorBloco, altura - yInicio);
+                    long posicao = TAMANHO_CABECALHO + (long) yInicio * largura * Integer.BYTES;
+
+                    bloco.clear().limit(linhas * largura * Integer.BYTES);
+                    IntBuffer pixels = bloco.asIntBuffer();
+                    for (int y = yInicio; y < yInicio + linhas; y++) {
+                        pixels.put(matriz[y]);
+                    }
+
+                    while (bloco.hasRemaining()) {
+                        canal.write(bloco, posicao + bloco.position());
+                    }
+                }
+
+                canal.force(false);
+            }
+
+            Files.move(temporario.toPath(), arquivoCache.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("✓ Cache do raster salvo: " + arquivoCache.getPath());
+
+        } catch (IOException e) {
+            temporario.delete();
+            System.err.println("✗ Não foi possível salvar o cache do raster: " + e.getMessage());
+        }
+    }
+
+    private static int linhasPorBloco(int largura, int altura) {
+        long linhas = BYTES_POR_BLOCO / ((long) largura * Integer.BYTES);
+        return (int) Math.max(1, Math.min(linhas, altura));
+    }
+
+    private static ByteBuffer alocarBloco(int largura, int linhasPorBloco) {
+        return ByteBuffer.allocateDirect(linhasPorBloco * largura * Integer.BYTES);
+    }
+
+    public static long[] calcularHistograma(int[][] matriz) {
+        long[] contagens = new long[CORES.length + 1];
+
+        for (int[] linha : matriz) {
+            for (int cor : linha) {
+                int indice = INDICE_OUTRAS;
+                for (int i = 0; i < CORES.length; i++) {
+                    if (cor == CORES[i]) {
+                        indice = i;
+                        break;
+                    }
+                }
+                contagens[indice]++;
+            }
+        }
+
+        return contagens;
+    }
+
+    private static long calcularCrc(File arquivo) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] bloco = new byte[1 << 16];
+
+        try (InputStream entrada = Files.newInputStream(arquivo.toPath())) {
+            int lidos;
+            while ((lidos = entrada.read(bloco)) > 0) {
+                crc.update(bloco, 0, lidos);
+            }
+        }
+
+        return crc.getValue();
+    }
+}
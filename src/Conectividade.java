@@ -0,0 +1,15 @@
+// Vizinhança considerada pelo preenchimento
+enum Conectividade {
+    // Cima, baixo, esquerda e direita
+    QUATRO,
+    // Inclui também as quatro diagonais
+    OITO;
+
+    // Deslocamentos de índice dos vizinhos em um vetor linha a linha com o stride informado
+    public int[] deslocamentos(int stride) {
+        if (this == QUATRO) {
+            return new int[]{-stride, stride, -1, 1};
+        }
+        return new int[]{-stride, stride, -1, 1, -stride - 1, -stride + 1, stride - 1, stride + 1};
+    }
+}
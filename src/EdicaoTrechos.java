@@ -0,0 +1,72 @@
+// Diferença de uma edição guardada como trechos horizontais: linha, início, fim, cor anterior e
+// cor nova. O tamanho acompanha a área alterada, não a imagem.
+class EdicaoTrechos {
+    static final int CAMPOS_POR_TRECHO = 5;
+
+    // Cabeçalho do objeto e do vetor, estimado para a conta do orçamento do histórico
+    private static final int BYTES_CABECALHO = 48;
+
+    private final int[] trechos;
+    private final long pixelsAlterados;
+
+    // Retângulo que contém todos os trechos, para redesenhar só a área alterada
+    private int linhaMinima = Integer.MAX_VALUE;
+    private int linhaMaxima = Integer.MIN_VALUE;
+    private int colunaMinima = Integer.MAX_VALUE;
+    private int colunaMaxima = Integer.MIN_VALUE;
+
+    public EdicaoTrechos(int[] trechos) {
+        this.trechos = trechos;
+
+        long pixels = 0;
+        for (int i = 0; i < trechos.length; i += CAMPOS_POR_TRECHO) {
+            pixels += trechos[i + 2] - trechos[i + 1] + 1;
+            linhaMinima = Math.min(linhaMinima, trechos[i]);
+            linhaMaxima = Math.max(linhaMaxima, trechos[i]);
+            colunaMinima = Math.min(colunaMinima, trechos[i + 1]);
+            colunaMaxima = Math.max(colunaMaxima, trechos[i + 2]);
+        }
+        this.pixelsAlterados = pixels;
+    }
+
+    // Volta as cores anteriores, do último trecho gravado para o primeiro
+    public void restaurar(MatrizPixel matriz) {
+        for (int i = trechos.length - CAMPOS_POR_TRECHO; i >= 0; i -= CAMPOS_POR_TRECHO) {
+            matriz.preencherTrecho(trechos[i], trechos[i + 1], trechos[i + 2], trechos[i + 3]);
+        }
+    }
+
+    public void reaplicar(MatrizPixel matriz) {
+        for (int i = 0; i < trechos.length; i += CAMPOS_POR_TRECHO) {
+            matriz.preencherTrecho(trechos[i], trechos[i + 1], trechos[i + 2], trechos[i + 4]);
+        }
+    }
+
+    public int quantidadeTrechos() {
+        return trechos.length / CAMPOS_POR_TRECHO;
+    }
+
+    public int getLinhaMinima() {
+        return linhaMinima;
+    }
+
+    public int getLinhaMaxima() {
+        return linhaMaxima;
+    }
+
+    public int getColunaMinima() {
+        return colunaMinima;
+    }
+
+    public int getColunaMaxima() {
+        return colunaMaxima;
+    }
+
+    public long getPixelsAlterados() {
+        return pixelsAlterados;
+    }
+
+    public long getBytes() {
+        return BYTES_CABECALHO + 4L * trechos.length;
+    }
+}
@@ -0,0 +1,17 @@
+// Interface para estruturas de dados
+interface EstruturaPixel {
+    void adicionar(Pixel pixel);
+    Pixel remover();
+    boolean estaVazia();
+    int tamanho();
+
+    // Caminho primitivo: estruturas compactas sobrescrevem para não alocar Pixel
+    default void adicionar(int x, int y) {
+        adicionar(new Pixel(x, y));
+    }
+
+    default long removerPacked() {
+        Pixel pixel = remover();
+        return Pixel.empacotar(pixel.getX(), pixel.getY());
+    }
+}
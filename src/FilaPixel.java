@@ -11,6 +11,7 @@ class NoFila {
 class FilaPixel implements EstruturaPixel {
     private NoFila inicio;
     private NoFila fim;
+    private int tamanho;
 
     public FilaPixel() {
         this.inicio = null;
@@ -28,6 +29,7 @@ class FilaPixel implements EstruturaPixel {
             fim.proximo = novoNo;
             fim = novoNo;
         }
+        tamanho++;
     }
 
     @Override
@@ -38,6 +40,7 @@ class FilaPixel implements EstruturaPixel {
 
         Pixel pixel = inicio.pixel;
         inicio = inicio.proximo;
+        tamanho--;
 
         if (inicio == null) {
             fim = null;
@@ -50,4 +53,9 @@ class FilaPixel implements EstruturaPixel {
     public boolean estaVazia() {
         return inicio == null;
     }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
 }
\ No newline at end of file
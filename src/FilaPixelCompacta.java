@@ -0,0 +1,75 @@
+// Fila circular sobre um vetor long[] crescente com coordenadas empacotadas (sem nós nem objetos Pixel)
+class FilaPixelCompacta implements EstruturaPixel {
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private long[] elementos;
+    private int inicio;
+    private int tamanho;
+
+    public FilaPixelCompacta() {
+        this.elementos = new long[CAPACIDADE_INICIAL];
+        this.inicio = 0;
+        this.tamanho = 0;
+    }
+
+    @Override
+    public void adicionar(Pixel pixel) {
+        adicionar(pixel.getX(), pixel.getY());
+    }
+
+    @Override
+    public void adicionar(int x, int y) {
+        if (tamanho == elementos.length) {
+            crescer();
+        }
+
+        int fim = inicio + tamanho;
+        if (fim >= elementos.length) {
+            fim -= elementos.length;
+        }
+        elementos[fim] = Pixel.empacotar(x, y);
+        tamanho++;
+    }
+
+    @Override
+    public Pixel remover() {
+        if (estaVazia()) {
+            return null;
+        }
+
+        long empacotado = removerPacked();
+        return new Pixel(Pixel.desempacotarX(empacotado), Pixel.desempacotarY(empacotado));
+    }
+
+    // Deve ser chamado apenas com a fila não vazia
+    @Override
+    public long removerPacked() {
+        long empacotado = elementos[inicio];
+        inicio++;
+        if (inicio == elementos.length) {
+            inicio = 0;
+        }
+        tamanho--;
+        return empacotado;
+    }
+
+    @Override
+    public boolean estaVazia() {
+        return tamanho == 0;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    // Dobra a capacidade desenrolando o anel para manter a ordem FIFO
+    private void crescer() {
+        long[] novo = new long[elementos.length * 2];
+        int primeiraParte = elementos.length - inicio;
+        System.arraycopy(elementos, inicio, novo, 0, primeiraParte);
+        System.arraycopy(elementos, 0, novo, primeiraParte, inicio);
+        elementos = novo;
+        inicio = 0;
+    }
+}
@@ -1,116 +1,792 @@
+import java.util.Arrays;
+import java.util.List;
+
 class FloodFillAlgoritmo {
-    private int[][] matriz;
+    // Saída do modo silencioso: reconhecida pela identidade para pular a medição dos frames
+    private static final SaidaAnimacao SEM_SAIDA = (m, y, xInicio, xFim, frame) -> { };
+
+    private MatrizPixel matriz;
     private int largura;
     private int altura;
     private int corOriginal;
     private int novaCor;
     private EstruturaPixel estrutura;
     private ProcessadorImagem processador;
+    private IndiceRegioes indiceRegioes;
+    private SaidaAnimacao saidaAnimacao;
+    private boolean deduplicarVizinhos;
+    private BitsetPixels enfileirados;
+    private FloodFillMetricas metricas = new FloodFillMetricas("Nenhuma");
+    private boolean silencioso;
 
     public FloodFillAlgoritmo(int[][] matriz, ProcessadorImagem processador) {
+        this(new MatrizPixelArray(matriz), processador);
+    }
+
+    public FloodFillAlgoritmo(MatrizPixel matriz, ProcessadorImagem processador) {
         this.matriz = matriz;
-        this.altura = matriz.length;
-        this.largura = matriz[0].length;
+        this.altura = matriz.getAltura();
+        this.largura = matriz.getLargura();
         this.processador = processador;
     }
 
+    // Sem saída configurada, cada pixel pintado gera um PNG de forma síncrona
+    public void setSaidaAnimacao(SaidaAnimacao saidaAnimacao) {
+        this.saidaAnimacao = saidaAnimacao;
+    }
+
+    // Com deduplicação, cada pixel entra na pilha/fila no máximo uma vez (bitset de 1 bit por pixel)
+    public void setDeduplicarVizinhos(boolean deduplicarVizinhos) {
+        this.deduplicarVizinhos = deduplicarVizinhos;
+    }
+
+    // Maior quantidade de elementos guardados ao mesmo tempo no último preenchimento
+    public int getPicoEstrutura() {
+        return metricas.getPicoEstrutura();
+    }
+
+    // Contadores e tempos do último preenchimento executado
+    public FloodFillMetricas getMetricas() {
+        return metricas;
+    }
+
+    // Sem mensagens no console, sem frames padrão e sem salvar a imagem final (usado em benchmarks)
+    public void setSilencioso(boolean silencioso) {
+        this.silencioso = silencioso;
+    }
+
+    private void log(String mensagem) {
+        if (!silencioso) {
+            System.out.println(mensagem);
+        }
+    }
+
+    private void salvarResultado(String tipo) {
+        if (!silencioso) {
+            long inicio = System.nanoTime();
+            processador.salvarImagemFinal(matriz, tipo);
+            metricas.registrarTempo(FloodFillMetricas.Fase.SALVAMENTO_FINAL, System.nanoTime() - inicio);
+        }
+    }
+
+    private void empilhar(int x, int y) {
+        estrutura.adicionar(x, y);
+        metricas.contarEmpilhamento();
+    }
+
+    private SaidaAnimacao obterSaidaAnimacao(String tipo) {
+        if (saidaAnimacao != null) {
+            return saidaAnimacao;
+        }
+        if (silencioso) {
+            return SEM_SAIDA;
+        }
+        return (m, y, xInicio, xFim, frame) -> processador.salvarImagemAnimacao(m, frame, tipo);
+    }
+
     public void preencherComPilha(int x, int y, int novaCor) {
-        this.estrutura = new PilhaPixel();
+        this.estrutura = new PilhaPixelCompacta();
         executarFloodFill(x, y, novaCor, "Pilha");
     }
 
     public void preencherComFila(int x, int y, int novaCor) {
-        this.estrutura = new FilaPixel();
+        this.estrutura = new FilaPixelCompacta();
         executarFloodFill(x, y, novaCor, "Fila");
     }
 
+    // Preenche trechos horizontais inteiros, empilhando apenas uma semente por trecho vizinho
+    public void preencherComScanline(int x, int y, int novaCor) {
+        this.estrutura = new PilhaPixelCompacta();
+        executarFloodFillScanline(x, y, novaCor);
+    }
+
+    // Preenche os pixels conectados cuja cor está dentro da tolerância em relação à cor do ponto inicial.
+    // Funciona direto na imagem original, sem a quantização para 5 cores.
+    public void preencherComTolerancia(int x, int y, int novaCor, int tolerancia, ModoTolerancia modo) {
+        metricas = new FloodFillMetricas("Tolerancia");
+
+        if (!coordenadaValida(x, y)) {
+            log("Coordenada inicial inválida!");
+            return;
+        }
+
+        this.corOriginal = matriz.obterCor(x, y);
+        this.novaCor = novaCor;
+        this.estrutura = new PilhaPixelCompacta();
+
+        log("Iniciando Flood Fill com tolerância " + tolerancia + " (" + modo + ")");
+        log("Posição inicial: (" + x + ", " + y + ")");
+        log("Cor de referência: " + Integer.toHexString(corOriginal));
+
+        invalidarIndice();
+
+        MascaraTolerancia mascara = new MascaraTolerancia(matriz, corOriginal, tolerancia, modo);
+        SaidaAnimacao saida = obterSaidaAnimacao("Tolerancia");
+
+        long inicioPreenchimento = System.nanoTime();
+        long nanosFrames = 0;
+
+        empilhar(x, y);
+        metricas.atualizarPico(1);
+
+        long pixelsProcessados = 0;
+        int frameCount = 0;
+
+        while (!estrutura.estaVazia()) {
+            long semente = estrutura.removerPacked();
+            metricas.contarRemocao();
+
+            int px = Pixel.desempacotarX(semente);
+            int py = Pixel.desempacotarY(semente);
+
+            if (!mascara.corresponde(px, py)) {
+                metricas.contarRemocaoDescartada();
+                continue;
+            }
+
+            int esquerda = px;
+            while (esquerda > 0 && mascara.corresponde(esquerda - 1, py)) {
+                esquerda--;
+            }
+
+            int direita = px;
+            while (direita < largura - 1 && mascara.corresponde(direita + 1, py)) {
+                direita++;
+            }
+
+            matriz.preencherTrecho(py, esquerda, direita, novaCor);
+            mascara.desmarcarTrecho(py, esquerda, direita);
+            pixelsProcessados += direita - esquerda + 1;
+
+            frameCount++;
+            nanosFrames += registrarFrame(saida, matriz, py, esquerda, direita, frameCount);
+
+            if (py > 0) {
+                adicionarSementesDaMascara(mascara, esquerda, direita, py - 1);
+            }
+            if (py < altura - 1) {
+                adicionarSementesDaMascara(mascara, esquerda, direita, py + 1);
+            }
+            metricas.atualizarPico(estrutura.tamanho());
+        }
+
+        finalizarSaida(saida, inicioPreenchimento, nanosFrames, pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+
+        salvarResultado("tolerancia");
+    }
+
+    private void adicionarSementesDaMascara(MascaraTolerancia mascara, int esquerda, int direita, int y) {
+        boolean dentroDeTrecho = false;
+
+        for (int i = esquerda; i <= direita; i++) {
+            boolean corresponde = mascara.corresponde(i, y);
+            if (corresponde && !dentroDeTrecho) {
+                empilhar(i, y);
+            }
+            dentroDeTrecho = corresponde;
+        }
+    }
+
+    // Kernel sem verificação de coordenadas, com 4 ou 8 vizinhos. Rasters com margem são
+    // preenchidos no lugar; as demais matrizes passam por uma cópia com moldura sentinela.
+    public void preencherComSentinela(int x, int y, int novaCor, Conectividade conectividade) {
+        metricas = new FloodFillMetricas("Sentinela");
+
+        if (!coordenadaValida(x, y)) {
+            log("Coordenada inicial inválida!");
+            return;
+        }
+
+        this.corOriginal = matriz.obterCor(x, y);
+        this.novaCor = novaCor;
+
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            log("A cor original já é igual à nova cor!");
+            return;
+        }
+
+        log("Iniciando Flood Fill com sentinela (" + conectividade + " vizinhos)");
+        log("Posição inicial: (" + x + ", " + y + ")");
+
+        invalidarIndice();
+
+        long inicioPreenchimento = System.nanoTime();
+        boolean temMargem = matriz instanceof RasterPixel && ((RasterPixel) matriz).getMargem() >= 1;
+        RasterPixel raster = temMargem ? (RasterPixel) matriz : RasterPixel.comMargem(matriz);
+
+        long pixelsProcessados = KernelSentinela.preencher(raster, x, y, novaCor, conectividade);
+
+        // Devolve para a matriz original apenas os pixels repintados
+        if (!temMargem) {
+            for (int py = 0; py < altura; py++) {
+                for (int px = 0; px < largura; px++) {
+                    if (raster.obterCor(px, py) == novaCor && matriz.obterCor(px, py) == corOriginal) {
+                        matriz.definirCor(px, py, novaCor);
+                    }
+                }
+            }
+        }
+
+        metricas.registrarTempo(FloodFillMetricas.Fase.PREENCHIMENTO, System.nanoTime() - inicioPreenchimento);
+        metricas.contarPixels(pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+
+        salvarResultado("sentinela");
+    }
+
+    // Repinta a região a partir do índice de regiões, construído na primeira chamada
+    public void preencherComIndice(int x, int y, int novaCor) {
+        metricas = new FloodFillMetricas("Indice");
+
+        if (!coordenadaValida(x, y)) {
+            log("Coordenada inicial inválida!");
+            return;
+        }
+
+        if (indiceRegioes == null) {
+            log("Construindo índice de regiões da matriz...");
+            indiceRegioes = new IndiceRegioes(matriz);
+        }
+
+        this.corOriginal = matriz.obterCor(x, y);
+        this.novaCor = novaCor;
+
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            log("A cor original já é igual à nova cor!");
+            return;
+        }
+
+        log("Iniciando Flood Fill pelo índice de regiões");
+        log("Posição inicial: (" + x + ", " + y + ")");
+
+        long inicioPreenchimento = System.nanoTime();
+        long pixelsProcessados = indiceRegioes.preencher(x, y, novaCor);
+        metricas.registrarTempo(FloodFillMetricas.Fase.PREENCHIMENTO, System.nanoTime() - inicioPreenchimento);
+        metricas.contarPixels(pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+
+        salvarResultado("indice");
+    }
+
+    // Preenche trecho a trecho sobre um RasterRLE: o custo acompanha o número de trechos da região,
+    // não a sua área. Outras matrizes passam por uma cópia codificada em trechos.
+    public void preencherPorTrechos(int x, int y, int novaCor) {
+        metricas = new FloodFillMetricas("Trechos");
+
+        if (!coordenadaValida(x, y)) {
+            log("Coordenada inicial inválida!");
+            return;
+        }
+
+        this.corOriginal = matriz.obterCor(x, y);
+        this.novaCor = novaCor;
+
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            log("A cor original já é igual à nova cor!");
+            return;
+        }
+
+        invalidarIndice();
+
+        boolean codificada = matriz instanceof RasterRLE;
+        RasterRLE raster = codificada ? (RasterRLE) matriz : RasterRLE.deMatriz(matriz.paraMatriz());
+
+        log("Iniciando Flood Fill por trechos RLE");
+        log("Posição inicial: (" + x + ", " + y + ")");
+        log("Trechos na imagem: " + raster.getTotalTrechos());
+
+        SaidaAnimacao saida = obterSaidaAnimacao("Trechos");
+
+        long inicioPreenchimento = System.nanoTime();
+        long nanosFrames = 0;
+
+        // Cada elemento é um trecho já pintado: linha, início e fim
+        ListaInteiros pendentes = new ListaInteiros();
+        int inicial = raster.trechoEm(x, y);
+        int inicio = raster.inicioTrecho(y, inicial);
+        int fim = raster.fimTrecho(y, inicial);
+
+        raster.preencherTrecho(y, inicio, fim, novaCor);
+        pendentes.adicionar(y, inicio, fim);
+        metricas.contarEmpilhamento();
+        metricas.atualizarPico(1);
+
+        long pixelsProcessados = fim - inicio + 1;
+        int frameCount = 1;
+        nanosFrames += registrarFrame(saida, raster, y, inicio, fim, frameCount);
+
+        while (!pendentes.estaVazia()) {
+            int fimAtual = pendentes.removerUltimo();
+            int inicioAtual = pendentes.removerUltimo();
+            int linha = pendentes.removerUltimo();
+            metricas.contarRemocao();
+
+            for (int vizinha = linha - 1; vizinha <= linha + 1; vizinha += 2) {
+                if (vizinha < 0 || vizinha >= altura) {
+                    continue;
+                }
+
+                // Percorre os trechos da linha vizinha que se sobrepõem a [inicioAtual, fimAtual]
+                int px = inicioAtual;
+                while (px <= fimAtual) {
+                    int trecho = raster.trechoEm(px, vizinha);
+                    int inicioVizinho = raster.inicioTrecho(vizinha, trecho);
+                    int fimVizinho = raster.fimTrecho(vizinha, trecho);
+
+                    if (raster.corTrecho(vizinha, trecho) == corOriginal) {
+                        raster.preencherTrecho(vizinha, inicioVizinho, fimVizinho, novaCor);
+                        pendentes.adicionar(vizinha, inicioVizinho, fimVizinho);
+                        metricas.contarEmpilhamento();
+                        pixelsProcessados += fimVizinho - inicioVizinho + 1;
+
+                        frameCount++;
+                        nanosFrames += registrarFrame(saida, raster, vizinha, inicioVizinho, fimVizinho, frameCount);
+                    }
+
+                    px = fimVizinho + 1;
+                }
+            }
+
+            metricas.atualizarPico(pendentes.tamanho() / 3);
+        }
+
+        // Devolve para a matriz original apenas os pixels repintados
+        if (!codificada) {
+            int[] linhaOriginal = new int[largura];
+            for (int py = 0; py < altura; py++) {
+                matriz.copiarLinha(py, linhaOriginal, 0);
+                for (int t = 0; t < raster.quantidadeTrechos(py); t++) {
+                    if (raster.corTrecho(py, t) != novaCor) {
+                        continue;
+                    }
+                    for (int px = raster.inicioTrecho(py, t); px <= raster.fimTrecho(py, t); px++) {
+                        if (linhaOriginal[px] == corOriginal) {
+                            matriz.definirCor(px, py, novaCor);
+                        }
+                    }
+                }
+            }
+        }
+
+        finalizarSaida(saida, inicioPreenchimento, nanosFrames, pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+        log("Trechos repintados: " + metricas.getEmpilhamentos() + " | Trechos na imagem: " + raster.getTotalTrechos());
+
+        salvarResultado("trechos");
+    }
+
+    // Preenche todas as sementes numa única travessia: cada pixel é visitado no máximo uma vez.
+    // As regiões são as da imagem original; quando várias sementes caem na mesma região,
+    // vence a primeira da lista e as demais ficam com zero pixels.
+    public ResultadoMultiplasSementes preencherMultiplasSementes(List<Semente> sementes) {
+        metricas = new FloodFillMetricas("MultiplasSementes");
+
+        int quantidade = sementes.size();
+        long[] pixelsPorSemente = new long[quantidade];
+        int[] vencedoraPorSemente = new int[quantidade];
+        Arrays.fill(vencedoraPorSemente, ResultadoMultiplasSementes.SEMENTE_INVALIDA);
+
+        log("Iniciando Flood Fill com " + quantidade + " sementes em uma travessia");
+
+        invalidarIndice();
+
+        this.estrutura = new PilhaPixelCompacta();
+        BitsetPixels visitados = new BitsetPixels(largura, altura);
+        SaidaAnimacao saida = obterSaidaAnimacao("MultiplasSementes");
+
+        long inicioPreenchimento = System.nanoTime();
+        long nanosFrames = 0;
+        long pixelsProcessados = 0;
+        int frameCount = 0;
+        int numeroRegioes = 0;
+
+        for (int i = 0; i < quantidade; i++) {
+            Semente semente = sementes.get(i);
+            int x = semente.getX();
+            int y = semente.getY();
+
+            // Já resolvida por uma semente anterior da mesma região, ou fora da imagem
+            if (vencedoraPorSemente[i] != ResultadoMultiplasSementes.SEMENTE_INVALIDA || !coordenadaValida(x, y)) {
+                continue;
+            }
+
+            vencedoraPorSemente[i] = i;
+            numeroRegioes++;
+            this.corOriginal = matriz.obterCor(x, y);
+            this.novaCor = semente.getCor();
+            long pixelsRegiao = 0;
+
+            empilhar(x, y);
+
+            while (!estrutura.estaVazia()) {
+                long empacotado = estrutura.removerPacked();
+                metricas.contarRemocao();
+
+                int px = Pixel.desempacotarX(empacotado);
+                int py = Pixel.desempacotarY(empacotado);
+
+                if (!pertenceARegiao(visitados, px, py)) {
+                    metricas.contarRemocaoDescartada();
+                    continue;
+                }
+
+                int esquerda = px;
+                while (esquerda > 0 && pertenceARegiao(visitados, esquerda - 1, py)) {
+                    esquerda--;
+                }
+
+                int direita = px;
+                while (direita < largura - 1 && pertenceARegiao(visitados, direita + 1, py)) {
+                    direita++;
+                }
+
+                for (int xi = esquerda; xi <= direita; xi++) {
+                    visitados.marcar(xi, py);
+                }
+                matriz.preencherTrecho(py, esquerda, direita, novaCor);
+                pixelsRegiao += direita - esquerda + 1;
+
+                frameCount++;
+                nanosFrames += registrarFrame(saida, matriz, py, esquerda, direita, frameCount);
+
+                if (py > 0) {
+                    adicionarSementesDaRegiao(visitados, esquerda, direita, py - 1);
+                }
+                if (py < altura - 1) {
+                    adicionarSementesDaRegiao(visitados, esquerda, direita, py + 1);
+                }
+                metricas.atualizarPico(estrutura.tamanho());
+            }
+
+            pixelsPorSemente[i] = pixelsRegiao;
+            pixelsProcessados += pixelsRegiao;
+
+            // As sementes seguintes que caíram nesta região perdem para a atual
+            for (int j = i + 1; j < quantidade; j++) {
+                Semente outra = sementes.get(j);
+                if (vencedoraPorSemente[j] == ResultadoMultiplasSementes.SEMENTE_INVALIDA
+                        && coordenadaValida(outra.getX(), outra.getY())
+                        && visitados.contem(outra.getX(), outra.getY())) {
+                    vencedoraPorSemente[j] = i;
+                }
+            }
+        }
+
+        finalizarSaida(saida, inicioPreenchimento, nanosFrames, pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+        log("Regiões preenchidas: " + numeroRegioes + " | Sementes descartadas: " + (quantidade - numeroRegioes));
+
+        salvarResultado("multiplas_sementes");
+
+        return new ResultadoMultiplasSementes(pixelsPorSemente, vencedoraPorSemente, numeroRegioes);
+    }
+
+    // Pixels ainda não visitados guardam a cor da imagem original
+    private boolean pertenceARegiao(BitsetPixels visitados, int x, int y) {
+        return !visitados.contem(x, y) && matriz.obterCor(x, y) == corOriginal;
+    }
+
+    private void adicionarSementesDaRegiao(BitsetPixels visitados, int esquerda, int direita, int y) {
+        boolean dentroDeTrecho = false;
+
+        for (int i = esquerda; i <= direita; i++) {
+            boolean corresponde = pertenceARegiao(visitados, i, y);
+            if (corresponde && !dentroDeTrecho) {
+                empilhar(i, y);
+            }
+            dentroDeTrecho = corresponde;
+        }
+    }
+
+    // Deve ser chamado quando a matriz for alterada fora deste algoritmo
+    public void invalidarIndice() {
+        indiceRegioes = null;
+    }
+
+    // Preenche por ladrilhos em paralelo; o resultado final é idêntico ao de preencherComFila.
+    // Lança IllegalArgumentException se a matriz não for MatrizPixelArray ou RasterPixel.
+    public void preencherParalelo(int x, int y, int novaCor) {
+        FloodFillParalelo paralelo = new FloodFillParalelo(matriz);
+        metricas = new FloodFillMetricas("Paralelo");
+
+        if (!coordenadaValida(x, y)) {
+            log("Coordenada inicial inválida!");
+            return;
+        }
+
+        this.corOriginal = matriz.obterCor(x, y);
+        this.novaCor = novaCor;
+
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            log("A cor original já é igual à nova cor!");
+            return;
+        }
+
+        // As cores vão mudar fora do índice de regiões
+        invalidarIndice();
+
+        log("Iniciando Flood Fill paralelo por ladrilhos");
+        log("Posição inicial: (" + x + ", " + y + ")");
+        log("Threads disponíveis: " + java.util.concurrent.ForkJoinPool.commonPool().getParallelism());
+
+        long inicioPreenchimento = System.nanoTime();
+        long pixelsProcessados = paralelo.preencher(x, y, novaCor);
+        metricas.registrarTempo(FloodFillMetricas.Fase.PREENCHIMENTO, System.nanoTime() - inicioPreenchimento);
+        metricas.contarPixels(pixelsProcessados);
+
+        // Sem frames de animação: a ordem de pintura entre ladrilhos não é determinística
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+
+        salvarResultado("paralelo");
+    }
+
     private void executarFloodFill(int x, int y, int novaCor, String tipoEstrutura) {
+        metricas = new FloodFillMetricas(tipoEstrutura);
+
         if (!coordenadaValida(x, y)) {
-            System.out.println("Coordenada inicial inválida!");
+            log("Coordenada inicial inválida!");
             return;
         }
 
-        this.corOriginal = matriz[y][x];
+        this.corOriginal = matriz.obterCor(x, y);
         this.novaCor = novaCor;
 
         // Se a cor já for a mesma, não há necessidade de preencher
         if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
-            System.out.println("A cor original já é igual à nova cor!");
+            log("A cor original já é igual à nova cor!");
             return;
         }
 
-        System.out.println("Iniciando Flood Fill com " + tipoEstrutura);
-        System.out.println("Posição inicial: (" + x + ", " + y + ")");
-        System.out.println("Cor original: " + Integer.toHexString(corOriginal));
-        System.out.println("Nova cor: " + Integer.toHexString(novaCor));
+        // As cores vão mudar fora do índice de regiões
+        invalidarIndice();
+
+        log("Iniciando Flood Fill com " + tipoEstrutura);
+        log("Posição inicial: (" + x + ", " + y + ")");
+        log("Cor original: " + Integer.toHexString(corOriginal));
+        log("Nova cor: " + Integer.toHexString(novaCor));
+
+        SaidaAnimacao saida = obterSaidaAnimacao(tipoEstrutura);
+
+        enfileirados = deduplicarVizinhos ? new BitsetPixels(largura, altura) : null;
+        if (enfileirados != null) {
+            enfileirados.marcar(x, y);
+        }
+
+        long inicioPreenchimento = System.nanoTime();
+        long nanosFrames = 0;
 
         // Adiciona o pixel inicial à estrutura
-        estrutura.adicionar(new Pixel(x, y));
+        empilhar(x, y);
+        metricas.atualizarPico(1);
 
-        int pixelsProcessados = 0;
+        long pixelsProcessados = 0;
         int frameCount = 0;
 
         // Loop principal do algoritmo
         while (!estrutura.estaVazia()) {
-            Pixel pixelAtual = estrutura.remover();
+            long pixelAtual = estrutura.removerPacked();
+            metricas.contarRemocao();
 
-            if (pixelAtual == null) {
-                continue;
-            }
-
-            int px = pixelAtual.getX();
-            int py = pixelAtual.getY();
+            int px = Pixel.desempacotarX(pixelAtual);
+            int py = Pixel.desempacotarY(pixelAtual);
 
             // Verifica se o pixel é válido e tem a cor original
             if (coordenadaValida(px, py) &&
-                    GerenciarCores.coresSaoIguais(matriz[py][px], corOriginal)) {
+                    GerenciarCores.coresSaoIguais(matriz.obterCor(px, py), corOriginal)) {
 
                 // Pinta o pixel atual
-                matriz[py][px] = novaCor;
+                matriz.definirCor(px, py, novaCor);
                 pixelsProcessados++;
 
-                // Salva imagem a cada pixel modificado 
+                // Registra um frame a cada pixel modificado
                 frameCount++;
-                processador.salvarImagemAnimacao(matriz, frameCount, tipoEstrutura);
+                nanosFrames += registrarFrame(saida, matriz, py, px, px, frameCount);
 
                 // Log reduzido para não poluir console, mas confirmando que cada pixel é processado
-                if (pixelsProcessados % 100 == 0) {
-                    System.out.println("Progresso: " + pixelsProcessados + " pixels processados (frame " + frameCount + " salvo)");
+                if (!silencioso && pixelsProcessados % 100 == 0) {
+                    log("Progresso: " + pixelsProcessados + " pixels processados (frame " + frameCount + ")");
                 }
 
                 // Adiciona os 4 vizinhos à estrutura
                 adicionarVizinhos(px, py);
+                metricas.atualizarPico(estrutura.tamanho());
+            } else {
+                metricas.contarRemocaoDescartada();
+            }
+        }
+
+        enfileirados = null;
+        finalizarSaida(saida, inicioPreenchimento, nanosFrames, pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+        log("Total de frames de animação registrados: " + frameCount);
+        log("Pico de elementos na estrutura: " + metricas.getPicoEstrutura() + (deduplicarVizinhos ? " (com deduplicação)" : ""));
+        log("CONFIRMAÇÃO: Utilizou estrutura " + tipoEstrutura + " própria para armazenar vizinhos");
+
+        salvarResultado(tipoEstrutura.toLowerCase());
+    }
+
+    private void executarFloodFillScanline(int x, int y, int novaCor) {
+        metricas = new FloodFillMetricas("Scanline");
+
+        if (!coordenadaValida(x, y)) {
+            log("Coordenada inicial inválida!");
+            return;
+        }
+
+        this.corOriginal = matriz.obterCor(x, y);
+        this.novaCor = novaCor;
+
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            log("A cor original já é igual à nova cor!");
+            return;
+        }
+
+        // As cores vão mudar fora do índice de regiões
+        invalidarIndice();
+
+        log("Iniciando Flood Fill com Scanline");
+        log("Posição inicial: (" + x + ", " + y + ")");
+        log("Cor original: " + Integer.toHexString(corOriginal));
+        log("Nova cor: " + Integer.toHexString(novaCor));
+
+        SaidaAnimacao saida = obterSaidaAnimacao("Scanline");
+
+        long inicioPreenchimento = System.nanoTime();
+        long nanosFrames = 0;
+
+        empilhar(x, y);
+        metricas.atualizarPico(1);
+
+        long pixelsProcessados = 0;
+        int trechosProcessados = 0;
+        int frameCount = 0;
+
+        while (!estrutura.estaVazia()) {
+            long semente = estrutura.removerPacked();
+            metricas.contarRemocao();
+
+            int px = Pixel.desempacotarX(semente);
+            int py = Pixel.desempacotarY(semente);
+
+            // A semente pode ter sido pintada por outro trecho depois de empilhada
+            if (!GerenciarCores.coresSaoIguais(matriz.obterCor(px, py), corOriginal)) {
+                metricas.contarRemocaoDescartada();
+                continue;
+            }
+
+            // Expande o trecho para os dois lados enquanto a cor for a original
+            int esquerda = px;
+            while (esquerda > 0 && GerenciarCores.coresSaoIguais(matriz.obterCor(esquerda - 1, py), corOriginal)) {
+                esquerda--;
+            }
+
+            int direita = px;
+            while (direita < largura - 1 && GerenciarCores.coresSaoIguais(matriz.obterCor(direita + 1, py), corOriginal)) {
+                direita++;
             }
+
+            // Pinta o trecho inteiro de uma vez
+            matriz.preencherTrecho(py, esquerda, direita, novaCor);
+            pixelsProcessados += direita - esquerda + 1;
+            trechosProcessados++;
+
+            // Um frame por trecho pintado
+            frameCount++;
+            nanosFrames += registrarFrame(saida, matriz, py, esquerda, direita, frameCount);
+
+            if (!silencioso && trechosProcessados % 100 == 0) {
+                log("Progresso: " + pixelsProcessados + " pixels em " + trechosProcessados + " trechos (frame " + frameCount + ")");
+            }
+
+            // Uma semente por trecho nas linhas de cima e de baixo
+            if (py > 0) {
+                adicionarSementesDaLinha(esquerda, direita, py - 1);
+            }
+            if (py < altura - 1) {
+                adicionarSementesDaLinha(esquerda, direita, py + 1);
+            }
+            metricas.atualizarPico(estrutura.tamanho());
         }
 
-        System.out.println("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
-        System.out.println("Total de frames de animação salvos: " + frameCount);
-        System.out.println("CONFIRMAÇÃO: Utilizou estrutura " + tipoEstrutura + " própria para armazenar vizinhos");
+        finalizarSaida(saida, inicioPreenchimento, nanosFrames, pixelsProcessados);
+
+        log("Flood Fill concluído! Pixels processados: " + pixelsProcessados);
+        log("Trechos horizontais preenchidos: " + trechosProcessados);
+        log("Pico de sementes na pilha: " + metricas.getPicoEstrutura());
+        log("Total de frames de animação registrados: " + frameCount);
+
+        salvarResultado("scanline");
+    }
+
+    private void adicionarSementesDaLinha(int esquerda, int direita, int y) {
+        boolean dentroDeTrecho = false;
+
+        for (int i = esquerda; i <= direita; i++) {
+            boolean corresponde = GerenciarCores.coresSaoIguais(matriz.obterCor(i, y), corOriginal);
 
-        processador.salvarImagemFinal(matriz, tipoEstrutura.toLowerCase());
+            // Empilha somente o primeiro pixel de cada trecho contínuo
+            if (corresponde && !dentroDeTrecho) {
+                empilhar(i, y);
+            }
+            dentroDeTrecho = corresponde;
+        }
     }
 
     private void adicionarVizinhos(int x, int y) {
 
         // Vizinho superior
-        if (coordenadaValida(x, y - 1)) {
-            estrutura.adicionar(new Pixel(x, y - 1));
-        }
+        adicionarVizinho(x, y - 1);
 
         // Vizinho inferior
-        if (coordenadaValida(x, y + 1)) {
-            estrutura.adicionar(new Pixel(x, y + 1));
-        }
+        adicionarVizinho(x, y + 1);
 
         // Vizinho esquerdo
-        if (coordenadaValida(x - 1, y)) {
-            estrutura.adicionar(new Pixel(x - 1, y));
-        }
+        adicionarVizinho(x - 1, y);
 
         // Vizinho direito
-        if (coordenadaValida(x + 1, y)) {
-            estrutura.adicionar(new Pixel(x + 1, y));
+        adicionarVizinho(x + 1, y);
+    }
+
+    private void adicionarVizinho(int x, int y) {
+        if (!coordenadaValida(x, y)) {
+            return;
+        }
+
+        // Sem deduplicação o vizinho entra mesmo que já esteja na estrutura ou pintado
+        if (enfileirados != null
+                && (!GerenciarCores.coresSaoIguais(matriz.obterCor(x, y), corOriginal) || !enfileirados.marcar(x, y))) {
+            return;
+        }
+
+        empilhar(x, y);
+    }
+
+    // Fecha a saída de animação e separa o tempo de frames do tempo de preenchimento
+    // Só mede o tempo dos frames quando há uma saída de verdade: sem ela, nada de nanoTime por pixel
+    private long registrarFrame(SaidaAnimacao saida, MatrizPixel destino, int y, int xInicio, int xFim, int frame) {
+        if (saida == SEM_SAIDA) {
+            return 0;
         }
+        long inicioFrame = System.nanoTime();
+        saida.registrarTrecho(destino, y, xInicio, xFim, frame);
+        return System.nanoTime() - inicioFrame;
+    }
+
+    private void finalizarSaida(SaidaAnimacao saida, long inicioPreenchimento, long nanosFrames, long pixelsProcessados) {
+        long fimPreenchimento = System.nanoTime();
+        saida.finalizar(matriz);
+        long nanosFinalizacao = System.nanoTime() - fimPreenchimento;
+
+        metricas.registrarTempo(FloodFillMetricas.Fase.PREENCHIMENTO, fimPreenchimento - inicioPreenchimento - nanosFrames);
+        metricas.registrarTempo(FloodFillMetricas.Fase.FRAMES, nanosFrames + nanosFinalizacao);
+        metricas.contarPixels(pixelsProcessados);
     }
 
     private boolean coordenadaValida(int x, int y) {
@@ -129,15 +805,15 @@ class FloodFillAlgoritmo {
 
         for (int i = 0; i < alturaParaImprimir; i++) {
             for (int j = 0; j < larguraParaImprimir; j++) {
-                if (matriz[i][j] == GerenciarCores.obterCorBranca()) {
+                if (matriz.obterCor(j, i) == GerenciarCores.obterCorBranca()) {
                     System.out.print("B ");
-                } else if (matriz[i][j] == GerenciarCores.obterCorPreta()) {
+                } else if (matriz.obterCor(j, i) == GerenciarCores.obterCorPreta()) {
                     System.out.print("P ");
-                } else if (matriz[i][j] == GerenciarCores.obterCorVermelha()) {
+                } else if (matriz.obterCor(j, i) == GerenciarCores.obterCorVermelha()) {
                     System.out.print("V ");
-                } else if (matriz[i][j] == GerenciarCores.obterCorAzul()) {
+                } else if (matriz.obterCor(j, i) == GerenciarCores.obterCorAzul()) {
                     System.out.print("A ");
-                } else if (matriz[i][j] == GerenciarCores.obterCorVerde()) {
+                } else if (matriz.obterCor(j, i) == GerenciarCores.obterCorVerde()) {
                     System.out.print("G ");
                 } else {
                     System.out.print("? ");
@@ -159,21 +835,41 @@ class FloodFillAlgoritmo {
             return false;
         }
 
-        int corAtual = matriz[y][x];
+        int corAtual = matriz.obterCor(x, y);
         return !GerenciarCores.coresSaoIguais(corAtual, novaCor);
     }
 
     // Método para obter informações sobre a matriz
     public String obterInformacoesMatriz() {
-        int pixelsBrancos = 0;
-        int pixelsPretos = 0;
-        int pixelsColoridos = 0;
+        long pixelsBrancos = 0;
+        long pixelsPretos = 0;
+        long pixelsColoridos = 0;
+
+        if (matriz instanceof RasterPaleta) {
+            // Conta os índices da paleta, sem expandir para ARGB
+            RasterPaleta raster = (RasterPaleta) matriz;
+            long[] histograma = raster.histograma();
+
+            for (int i = 0; i < histograma.length; i++) {
+                int cor = raster.obterCorDaPaleta(i);
+                if (cor == GerenciarCores.obterCorBranca()) {
+                    pixelsBrancos += histograma[i];
+                } else if (cor == GerenciarCores.obterCorPreta()) {
+                    pixelsPretos += histograma[i];
+                } else {
+                    pixelsColoridos += histograma[i];
+                }
+            }
+
+            return String.format("Matriz %dx%d - Brancos: %d, Pretos: %d, Coloridos: %d",
+                    largura, altura, pixelsBrancos, pixelsPretos, pixelsColoridos);
+        }
 
         for (int i = 0; i < altura; i++) {
             for (int j = 0; j < largura; j++) {
-                if (matriz[i][j] == GerenciarCores.obterCorBranca()) {
+                if (matriz.obterCor(j, i) == GerenciarCores.obterCorBranca()) {
                     pixelsBrancos++;
-                } else if (matriz[i][j] == GerenciarCores.obterCorPreta()) {
+                } else if (matriz.obterCor(j, i) == GerenciarCores.obterCorPreta()) {
                     pixelsPretos++;
                 } else {
                     pixelsColoridos++;
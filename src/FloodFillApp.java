@@ -1,6 +1,8 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.util.concurrent.CompletableFuture;
 
@@ -11,12 +13,29 @@ public class FloodFillApp extends JFrame {
     private CanvasPanel canvasFila;
 
     private int[][] matrizOriginal;
-    private int[][] matrizPilha;
-    private int[][] matrizFila;
+    private transient RasterCopiaEscrita matrizPilha;
+    private transient RasterCopiaEscrita matrizFila;
+    private transient HistoricoEdicoes historicoPilha;
+    private transient HistoricoEdicoes historicoFila;
+
+    // Índices de regiões das matrizes de trabalho, criados no primeiro preenchimento sem animação.
+    // Qualquer escrita fora deles (animação, desfazer, refazer, nova imagem) os invalida.
+    private transient IndiceRegioes indicePilha;
+    private transient IndiceRegioes indiceFila;
 
     private static final int CANVAS_SIZE = 400;
-    private static final int GRID_SIZE = 20;
-    private static final int PIXEL_SIZE = CANVAS_SIZE / GRID_SIZE;
+    private static final int TAMANHO_EXEMPLO = 20;
+
+    // Canto da área da imagem dentro de cada canvas, abaixo do título
+    private static final int AREA_X = 15;
+    private static final int AREA_Y = 30;
+    private static final double ESCALA_MINIMA = 1.0 / 64;
+    private static final double ESCALA_MAXIMA = 64;
+
+    // Zoom e deslocamento compartilhados pelos três canvas, para comparar sempre o mesmo trecho
+    private double escala = 1;
+    private double deslocamentoX;
+    private double deslocamentoY;
 
     private JLabel statusLabel;
     private JLabel coordenadasLabel;
@@ -25,6 +44,9 @@ public class FloodFillApp extends JFrame {
     private JButton btnResetar;
     private JButton btnSalvarResultado;
     private JButton btnGerarNovaImagem;
+    private JButton btnDesfazer;
+    private JButton btnRefazer;
+    private JButton btnAjustarVisao;
     private JCheckBox chkAnimacao;
     private JSlider sliderVelocidade;
 
@@ -64,6 +86,11 @@ public class FloodFillApp extends JFrame {
         btnResetar = new JButton("Resetar");
         btnSalvarResultado = new JButton("Salvar Resultado");
         btnGerarNovaImagem = new JButton("Nova Imagem Aleatória");
+        btnDesfazer = new JButton("Desfazer");
+        btnRefazer = new JButton("Refazer");
+        btnAjustarVisao = new JButton("Ajustar Zoom");
+        btnDesfazer.setEnabled(false);
+        btnRefazer.setEnabled(false);
 
         // Controles
         chkAnimacao = new JCheckBox("Animação", true);
@@ -102,6 +129,10 @@ public class FloodFillApp extends JFrame {
         btnSalvarResultado.setForeground(Color.WHITE);
         btnSalvarResultado.setFocusPainted(false);
 
+        btnDesfazer.setFocusPainted(false);
+        btnRefazer.setFocusPainted(false);
+        btnAjustarVisao.setFocusPainted(false);
+
         statusLabel.setFont(statusLabel.getFont().deriveFont(14f));
         coordenadasLabel.setFont(coordenadasLabel.getFont().deriveFont(12f));
         coordenadasLabel.setForeground(new Color(25, 118, 210));
@@ -131,6 +162,9 @@ public class FloodFillApp extends JFrame {
         controles1.add(btnSalvarResultado);
 
         JPanel controles2 = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
+        controles2.add(btnDesfazer);
+        controles2.add(btnRefazer);
+        controles2.add(btnAjustarVisao);
         controles2.add(chkAnimacao);
         controles2.add(new JLabel("Velocidade:"));
         controles2.add(sliderVelocidade);
@@ -170,6 +204,37 @@ public class FloodFillApp extends JFrame {
         btnResetar.addActionListener(e -> resetarVisualizacao());
         btnSalvarResultado.addActionListener(e -> salvarResultado());
         btnGerarNovaImagem.addActionListener(e -> gerarNovaImagemAleatoria());
+        btnDesfazer.addActionListener(e -> desfazerPreenchimento());
+        btnRefazer.addActionListener(e -> refazerPreenchimento());
+        btnAjustarVisao.addActionListener(e -> ajustarVisao());
+
+        // Roda do mouse aproxima/afasta; arrastar move a imagem (um clique sem arrasto escolhe o ponto)
+        MouseAdapter navegacao = new MouseAdapter() {
+            private Point ultimo;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                ultimo = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (ultimo != null) {
+                    deslocar(e.getX() - ultimo.x, e.getY() - ultimo.y);
+                }
+                ultimo = e.getPoint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                aplicarZoom(Math.pow(1.25, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        for (CanvasPanel canvas : new CanvasPanel[] {canvasOriginal, canvasPilha, canvasFila}) {
+            canvas.addMouseListener(navegacao);
+            canvas.addMouseMotionListener(navegacao);
+            canvas.addMouseWheelListener(navegacao);
+        }
 
         canvasOriginal.addMouseListener(new MouseAdapter() {
             @Override
@@ -189,11 +254,13 @@ public class FloodFillApp extends JFrame {
     private void handleCanvasClick(MouseEvent e) {
         if (floodFillEmAndamento) return;
 
-        clickX = e.getX() / PIXEL_SIZE;
-        clickY = e.getY() / PIXEL_SIZE;
+        int x = (int) Math.floor(imagemX(e.getX()));
+        int y = (int) Math.floor(imagemY(e.getY()));
 
-        if (clickX >= 0 && clickX < GRID_SIZE && clickY >= 0 && clickY < GRID_SIZE) {
-            atualizarCanvas();
+        if (x >= 0 && x < matrizOriginal[0].length && y >= 0 && y < matrizOriginal.length) {
+            clickX = x;
+            clickY = y;
+            canvasOriginal.repaint();
             statusLabel.setText(String.format("Ponto selecionado: (%d, %d) - Pronto para Flood Fill!", clickX, clickY));
             coordenadasLabel.setText(String.format("Coordenadas: (%d, %d)", clickX, clickY));
         }
@@ -202,17 +269,28 @@ public class FloodFillApp extends JFrame {
     private void handleCanvasMouseMove(MouseEvent e) {
         if (floodFillEmAndamento) return;
 
-        int mouseX = e.getX() / PIXEL_SIZE;
-        int mouseY = e.getY() / PIXEL_SIZE;
+        int mouseX = (int) Math.floor(imagemX(e.getX()));
+        int mouseY = (int) Math.floor(imagemY(e.getY()));
 
-        if (mouseX >= 0 && mouseX < GRID_SIZE && mouseY >= 0 && mouseY < GRID_SIZE) {
+        if (mouseX >= 0 && mouseX < matrizOriginal[0].length && mouseY >= 0 && mouseY < matrizOriginal.length) {
             coordenadasLabel.setText(String.format("Coordenadas: (%d, %d)", mouseX, mouseY));
         }
     }
 
-    // Canvas customizado
+    // Canvas com a imagem em resolução real: uma BufferedImage de fundo desenhada com um único
+    // drawImage escalado. Alterações marcam um retângulo sujo, e só essa área é copiada e redesenhada.
     class CanvasPanel extends JPanel {
         private String titulo;
+        private transient MatrizPixel matriz;
+        private transient BufferedImage imagem;
+        private transient int[] dados;
+
+        // Área alterada desde a última cópia, em pixels da imagem; vazia quando xMax < xMin
+        private int sujoXMin = Integer.MAX_VALUE;
+        private int sujoYMin = Integer.MAX_VALUE;
+        private int sujoXMax = -1;
+        private int sujoYMax = -1;
+        private boolean copiaAgendada;
 
         public CanvasPanel(String titulo) {
             this.titulo = titulo;
@@ -224,6 +302,90 @@ public class FloodFillApp extends JFrame {
             ));
         }
 
+        // Troca a matriz exibida; chamar na thread da UI
+        public void exibir(MatrizPixel matriz) {
+            this.matriz = matriz;
+            int largura = matriz.getLargura();
+            int altura = matriz.getAltura();
+
+            if (imagem == null || imagem.getWidth() != largura || imagem.getHeight() != altura) {
+                imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+                dados = ((DataBufferInt) imagem.getRaster().getDataBuffer()).getData();
+            }
+            recarregar();
+        }
+
+        // Copia a matriz inteira para a imagem de fundo; chamar na thread da UI
+        public void recarregar() {
+            synchronized (this) {
+                limparAreaSuja();
+            }
+            for (int y = 0; y < imagem.getHeight(); y++) {
+                matriz.copiarLinha(y, dados, y * imagem.getWidth());
+            }
+            repaint();
+        }
+
+        // Pode ser chamado de qualquer thread: junta as alterações e agenda uma só cópia na thread da UI
+        public void marcarAlterado(int xInicio, int xFim, int y) {
+            synchronized (this) {
+                sujoXMin = Math.min(sujoXMin, xInicio);
+                sujoXMax = Math.max(sujoXMax, xFim);
+                sujoYMin = Math.min(sujoYMin, y);
+                sujoYMax = Math.max(sujoYMax, y);
+                if (copiaAgendada) {
+                    return;
+                }
+                copiaAgendada = true;
+            }
+            SwingUtilities.invokeLater(this::copiarAreaSuja);
+        }
+
+        // Só o retângulo da edição desfeita ou refeita; nada quando não houve edição
+        public void marcarAlterado(EdicaoTrechos edicao) {
+            if (edicao == null || edicao.quantidadeTrechos() == 0) {
+                return;
+            }
+            marcarAlterado(edicao.getColunaMinima(), edicao.getColunaMaxima(), edicao.getLinhaMinima());
+            marcarAlterado(edicao.getColunaMinima(), edicao.getColunaMaxima(), edicao.getLinhaMaxima());
+        }
+
+        private void copiarAreaSuja() {
+            int xMin, yMin, xMax, yMax;
+            synchronized (this) {
+                xMin = sujoXMin;
+                yMin = sujoYMin;
+                xMax = sujoXMax;
+                yMax = sujoYMax;
+                limparAreaSuja();
+            }
+            if (xMax < xMin) {
+                return;
+            }
+
+            int largura = imagem.getWidth();
+            for (int y = yMin; y <= yMax; y++) {
+                int linha = y * largura;
+                for (int x = xMin; x <= xMax; x++) {
+                    dados[linha + x] = matriz.obterCor(x, y);
+                }
+            }
+
+            int telaX0 = (int) Math.floor(telaX(xMin));
+            int telaY0 = (int) Math.floor(telaY(yMin));
+            int telaX1 = (int) Math.ceil(telaX(xMax + 1));
+            int telaY1 = (int) Math.ceil(telaY(yMax + 1));
+            repaint(telaX0, telaY0, telaX1 - telaX0 + 1, telaY1 - telaY0 + 1);
+        }
+
+        private void limparAreaSuja() {
+            sujoXMin = Integer.MAX_VALUE;
+            sujoYMin = Integer.MAX_VALUE;
+            sujoXMax = -1;
+            sujoYMax = -1;
+            copiaAgendada = false;
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
@@ -237,65 +399,105 @@ public class FloodFillApp extends JFrame {
             int titleX = (getWidth() - fm.stringWidth(titulo)) / 2;
             g2d.drawString(titulo, titleX, 20);
 
-            // Desenhar grid
-            if (this == canvasOriginal && matrizOriginal != null) {
-                desenharMatriz(g2d, matrizOriginal, 15, 30);
-                if (clickX != -1 && clickY != -1) {
+            if (imagem != null) {
+                g2d.clipRect(AREA_X, AREA_Y, CANVAS_SIZE, CANVAS_SIZE);
+                desenharImagem(g2d);
+
+                if (this == canvasOriginal && clickX != -1 && clickY != -1) {
+                    double diametro = Math.max(6, escala / 2);
                     g2d.setColor(Color.RED);
-                    g2d.fillOval(15 + clickX * PIXEL_SIZE + PIXEL_SIZE/4,
-                            30 + clickY * PIXEL_SIZE + PIXEL_SIZE/4,
-                            PIXEL_SIZE/2, PIXEL_SIZE/2);
+                    g2d.fill(new java.awt.geom.Ellipse2D.Double(telaX(clickX + 0.5) - diametro / 2,
+                            telaY(clickY + 0.5) - diametro / 2, diametro, diametro));
                 }
-            } else if (this == canvasPilha && matrizPilha != null) {
-                desenharMatriz(g2d, matrizPilha, 15, 30);
-            } else if (this == canvasFila && matrizFila != null) {
-                desenharMatriz(g2d, matrizFila, 15, 30);
             }
 
             g2d.dispose();
         }
 
-        private void desenharMatriz(Graphics2D g2d, int[][] matriz, int offsetX, int offsetY) {
-            for (int i = 0; i < GRID_SIZE; i++) {
-                for (int j = 0; j < GRID_SIZE; j++) {
-                    Color cor = intToColor(matriz[i][j]);
-                    g2d.setColor(cor);
-                    g2d.fillRect(offsetX + j * PIXEL_SIZE, offsetY + i * PIXEL_SIZE, PIXEL_SIZE, PIXEL_SIZE);
-                }
+        // Amostra só a parte da imagem que cai no recorte, sem interpolação para manter os pixels nítidos
+        private void desenharImagem(Graphics2D g2d) {
+            Rectangle recorte = g2d.getClipBounds();
+            int origemX0 = Math.max(0, (int) Math.floor(imagemX(recorte.x)));
+            int origemY0 = Math.max(0, (int) Math.floor(imagemY(recorte.y)));
+            int origemX1 = Math.min(imagem.getWidth(), (int) Math.ceil(imagemX(recorte.x + recorte.width)));
+            int origemY1 = Math.min(imagem.getHeight(), (int) Math.ceil(imagemY(recorte.y + recorte.height)));
+            if (origemX1 <= origemX0 || origemY1 <= origemY0) {
+                return;
             }
+
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.drawImage(imagem,
+                    (int) Math.floor(telaX(origemX0)), (int) Math.floor(telaY(origemY0)),
+                    (int) Math.floor(telaX(origemX1)), (int) Math.floor(telaY(origemY1)),
+                    origemX0, origemY0, origemX1, origemY1, null);
         }
     }
 
-    private Color intToColor(int colorInt) {
-        if (colorInt == GerenciarCores.obterCorBranca()) return Color.WHITE;
-        if (colorInt == GerenciarCores.obterCorPreta()) return Color.BLACK;
-        if (colorInt == GerenciarCores.obterCorVermelha()) return Color.RED;
-        if (colorInt == GerenciarCores.obterCorVerde()) return Color.GREEN;
-        if (colorInt == GerenciarCores.obterCorAzul()) return Color.BLUE;
-        return Color.GRAY;
+    // Conversões entre pixels da imagem e coordenadas do painel, com o zoom e o deslocamento atuais
+    private double telaX(double x) {
+        return AREA_X + deslocamentoX + x * escala;
+    }
+
+    private double telaY(double y) {
+        return AREA_Y + deslocamentoY + y * escala;
+    }
+
+    private double imagemX(int xPainel) {
+        return (xPainel - AREA_X - deslocamentoX) / escala;
+    }
+
+    private double imagemY(int yPainel) {
+        return (yPainel - AREA_Y - deslocamentoY) / escala;
+    }
+
+    // Encaixa a imagem inteira na área do canvas, centralizada
+    private void ajustarVisao() {
+        int largura = matrizOriginal[0].length;
+        int altura = matrizOriginal.length;
+        escala = Math.min((double) CANVAS_SIZE / largura, (double) CANVAS_SIZE / altura);
+        deslocamentoX = (CANVAS_SIZE - largura * escala) / 2;
+        deslocamentoY = (CANVAS_SIZE - altura * escala) / 2;
+        atualizarCanvas();
+    }
+
+    // Mantém parado o pixel sob o cursor
+    private void aplicarZoom(double fator, int xPainel, int yPainel) {
+        double novaEscala = Math.max(ESCALA_MINIMA, Math.min(ESCALA_MAXIMA, escala * fator));
+        double x = imagemX(xPainel);
+        double y = imagemY(yPainel);
+        escala = novaEscala;
+        deslocamentoX = xPainel - AREA_X - x * escala;
+        deslocamentoY = yPainel - AREA_Y - y * escala;
+        atualizarCanvas();
+    }
+
+    private void deslocar(int dx, int dy) {
+        deslocamentoX += dx;
+        deslocamentoY += dy;
+        atualizarCanvas();
     }
 
     private void criarMatrizExemplo() {
-        matrizOriginal = new int[GRID_SIZE][GRID_SIZE];
+        matrizOriginal = new int[TAMANHO_EXEMPLO][TAMANHO_EXEMPLO];
 
         // Preencher com branco
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
+        for (int i = 0; i < TAMANHO_EXEMPLO; i++) {
+            for (int j = 0; j < TAMANHO_EXEMPLO; j++) {
                 matrizOriginal[i][j] = GerenciarCores.obterCorBranca();
             }
         }
 
         criarFormasExemplo();
-        copiarMatrizes();
+        criarMatrizesDeTrabalho();
     }
 
     private void criarFormasExemplo() {
         // Bordas
-        for (int i = 0; i < GRID_SIZE; i++) {
+        for (int i = 0; i < TAMANHO_EXEMPLO; i++) {
             matrizOriginal[0][i] = GerenciarCores.obterCorPreta();
-            matrizOriginal[GRID_SIZE-1][i] = GerenciarCores.obterCorPreta();
+            matrizOriginal[TAMANHO_EXEMPLO-1][i] = GerenciarCores.obterCorPreta();
             matrizOriginal[i][0] = GerenciarCores.obterCorPreta();
-            matrizOriginal[i][GRID_SIZE-1] = GerenciarCores.obterCorPreta();
+            matrizOriginal[i][TAMANHO_EXEMPLO-1] = GerenciarCores.obterCorPreta();
         }
 
         // Retângulo central
@@ -309,8 +511,8 @@ public class FloodFillApp extends JFrame {
 
         // Círculo
         int centerX = 10, centerY = 10, radius = 3;
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
+        for (int i = 0; i < TAMANHO_EXEMPLO; i++) {
+            for (int j = 0; j < TAMANHO_EXEMPLO; j++) {
                 double distance = Math.sqrt((i - centerY) * (i - centerY) + (j - centerX) * (j - centerX));
                 if (Math.abs(distance - radius) < 0.5) {
                     matrizOriginal[i][j] = GerenciarCores.obterCorPreta();
@@ -325,11 +527,11 @@ public class FloodFillApp extends JFrame {
             return;
         }
 
-        matrizOriginal = new int[GRID_SIZE][GRID_SIZE];
+        matrizOriginal = new int[TAMANHO_EXEMPLO][TAMANHO_EXEMPLO];
 
         // Preencher com branco
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
+        for (int i = 0; i < TAMANHO_EXEMPLO; i++) {
+            for (int j = 0; j < TAMANHO_EXEMPLO; j++) {
                 matrizOriginal[i][j] = GerenciarCores.obterCorBranca();
             }
         }
@@ -338,25 +540,25 @@ public class FloodFillApp extends JFrame {
         java.util.Random rand = new java.util.Random();
 
         // Bordas sempre presentes
-        for (int i = 0; i < GRID_SIZE; i++) {
+        for (int i = 0; i < TAMANHO_EXEMPLO; i++) {
             matrizOriginal[0][i] = GerenciarCores.obterCorPreta();
-            matrizOriginal[GRID_SIZE-1][i] = GerenciarCores.obterCorPreta();
+            matrizOriginal[TAMANHO_EXEMPLO-1][i] = GerenciarCores.obterCorPreta();
             matrizOriginal[i][0] = GerenciarCores.obterCorPreta();
-            matrizOriginal[i][GRID_SIZE-1] = GerenciarCores.obterCorPreta();
+            matrizOriginal[i][TAMANHO_EXEMPLO-1] = GerenciarCores.obterCorPreta();
         }
 
         // Linhas aleatórias
         for (int k = 0; k < rand.nextInt(3) + 2; k++) {
-            int linha = rand.nextInt(GRID_SIZE - 4) + 2;
-            int inicio = rand.nextInt(GRID_SIZE/2) + 2;
-            int fim = rand.nextInt(GRID_SIZE/2) + GRID_SIZE/2;
+            int linha = rand.nextInt(TAMANHO_EXEMPLO - 4) + 2;
+            int inicio = rand.nextInt(TAMANHO_EXEMPLO/2) + 2;
+            int fim = rand.nextInt(TAMANHO_EXEMPLO/2) + TAMANHO_EXEMPLO/2;
 
             for (int j = inicio; j < fim; j++) {
                 matrizOriginal[linha][j] = GerenciarCores.obterCorPreta();
             }
         }
 
-        copiarMatrizes();
+        criarMatrizesDeTrabalho();
         atualizarCanvas();
         clickX = -1;
         clickY = -1;
@@ -364,16 +566,62 @@ public class FloodFillApp extends JFrame {
         coordenadasLabel.setText("Coordenadas: -");
     }
 
-    private void copiarMatrizes() {
-        matrizPilha = new int[GRID_SIZE][GRID_SIZE];
-        matrizFila = new int[GRID_SIZE][GRID_SIZE];
+    private void criarMatrizesDeTrabalho() {
+        // Pilha e Fila compartilham a original; ladrilhos só são copiados quando pintados
+        MatrizPixel base = new MatrizPixelArray(matrizOriginal);
+        matrizPilha = new RasterCopiaEscrita(base);
+        matrizFila = new RasterCopiaEscrita(base);
+
+        // Matrizes novas começam com o histórico vazio
+        historicoPilha = new HistoricoEdicoes(matrizPilha);
+        historicoFila = new HistoricoEdicoes(matrizFila);
+        invalidarIndices();
+        atualizarBotoesHistorico();
+
+        canvasOriginal.exibir(base);
+        canvasPilha.exibir(matrizPilha);
+        canvasFila.exibir(matrizFila);
+        ajustarVisao();
+    }
 
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                matrizPilha[i][j] = matrizOriginal[i][j];
-                matrizFila[i][j] = matrizOriginal[i][j];
-            }
+    private void invalidarIndices() {
+        indicePilha = null;
+        indiceFila = null;
+    }
+
+    private void atualizarBotoesHistorico() {
+        btnDesfazer.setEnabled(!floodFillEmAndamento
+                && (historicoPilha.podeDesfazer() || historicoFila.podeDesfazer()));
+        btnRefazer.setEnabled(!floodFillEmAndamento
+                && (historicoPilha.podeRefazer() || historicoFila.podeRefazer()));
+    }
+
+    private void desfazerPreenchimento() {
+        if (floodFillEmAndamento) return;
+
+        EdicaoTrechos edicaoPilha = historicoPilha.desfazer();
+        EdicaoTrechos edicaoFila = historicoFila.desfazer();
+        if (edicaoPilha != null || edicaoFila != null) {
+            invalidarIndices();
+            canvasPilha.marcarAlterado(edicaoPilha);
+            canvasFila.marcarAlterado(edicaoFila);
+            statusLabel.setText("Último preenchimento desfeito.");
         }
+        atualizarBotoesHistorico();
+    }
+
+    private void refazerPreenchimento() {
+        if (floodFillEmAndamento) return;
+
+        EdicaoTrechos edicaoPilha = historicoPilha.refazer();
+        EdicaoTrechos edicaoFila = historicoFila.refazer();
+        if (edicaoPilha != null || edicaoFila != null) {
+            invalidarIndices();
+            canvasPilha.marcarAlterado(edicaoPilha);
+            canvasFila.marcarAlterado(edicaoFila);
+            statusLabel.setText("Preenchimento refeito.");
+        }
+        atualizarBotoesHistorico();
     }
 
     private void atualizarCanvas() {
@@ -397,8 +645,8 @@ public class FloodFillApp extends JFrame {
             File arquivo = fileChooser.getSelectedFile();
             try {
                 int[][] novaMatriz = processador.carregarImagem(arquivo.getAbsolutePath());
-                matrizOriginal = redimensionarMatriz(novaMatriz, GRID_SIZE, GRID_SIZE);
-                copiarMatrizes();
+                matrizOriginal = novaMatriz;
+                criarMatrizesDeTrabalho();
                 atualizarCanvas();
 
                 clickX = -1;
@@ -411,22 +659,6 @@ public class FloodFillApp extends JFrame {
         }
     }
 
-    private int[][] redimensionarMatriz(int[][] original, int novaLargura, int novaAltura) {
-        int alturaOriginal = original.length;
-        int larguraOriginal = original[0].length;
-        int[][] nova = new int[novaAltura][novaLargura];
-
-        for (int i = 0; i < novaAltura; i++) {
-            for (int j = 0; j < novaLargura; j++) {
-                int origI = (i * alturaOriginal) / novaAltura;
-                int origJ = (j * larguraOriginal) / novaLargura;
-                nova[i][j] = original[origI][origJ];
-            }
-        }
-
-        return nova;
-    }
-
     private void iniciarFloodFill() {
         if (clickX == -1 || clickY == -1) {
             JOptionPane.showMessageDialog(this, "Clique no canvas original para escolher um ponto inicial.", "Aviso", JOptionPane.WARNING_MESSAGE);
@@ -445,8 +677,17 @@ public class FloodFillApp extends JFrame {
         floodFillEmAndamento = true;
         btnIniciarFloodFill.setEnabled(false);
         statusLabel.setText("Executando Flood Fill... Aguarde!");
+        atualizarBotoesHistorico();
+
+        // Os preenchimentos se acumulam sobre o resultado anterior; cada um vira um passo de desfazer
+        MatrizPixel destinoPilha = historicoPilha.getMatrizGravada();
+        MatrizPixel destinoFila = historicoFila.getMatrizGravada();
 
-        copiarMatrizes();
+        // Sem animação, cliques repetidos repintam pelo índice de regiões em vez de percorrer a imagem
+        boolean animar = chkAnimacao.isSelected();
+        if (animar) {
+            invalidarIndices();
+        }
 
         SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
             @Override
@@ -458,19 +699,31 @@ public class FloodFillApp extends JFrame {
                 // Executar Pilha com animação (Vermelho)
                 CompletableFuture<Void> futurePilha = CompletableFuture.runAsync(() -> {
                     SwingFloodFillAnimado floodFillPilha = new SwingFloodFillAnimado(
-                            matrizPilha, canvasPilha, processadorPilha, "pilha");
-                    floodFillPilha.preencherComPilhaAnimado(clickX, clickY,
-                            GerenciarCores.obterCorVermelha(),
-                            chkAnimacao.isSelected() ? sliderVelocidade.getValue() : 0);
+                            destinoPilha, canvasPilha, processadorPilha, "pilha");
+                    if (animar) {
+                        floodFillPilha.preencherComPilhaAnimado(clickX, clickY,
+                                GerenciarCores.obterCorVermelha(), sliderVelocidade.getValue());
+                    } else {
+                        if (indicePilha == null) {
+                            indicePilha = new IndiceRegioes(destinoPilha);
+                        }
+                        floodFillPilha.preencherPeloIndice(indicePilha, clickX, clickY, GerenciarCores.obterCorVermelha());
+                    }
                 });
 
                 // Executar Fila com animação (Verde)
                 CompletableFuture<Void> futureFila = CompletableFuture.runAsync(() -> {
                     SwingFloodFillAnimado floodFillFila = new SwingFloodFillAnimado(
-                            matrizFila, canvasFila, processadorFila, "fila");
-                    floodFillFila.preencherComFilaAnimado(clickX, clickY,
-                            GerenciarCores.obterCorVerde(),
-                            chkAnimacao.isSelected() ? sliderVelocidade.getValue() : 0);
+                            destinoFila, canvasFila, processadorFila, "fila");
+                    if (animar) {
+                        floodFillFila.preencherComFilaAnimado(clickX, clickY,
+                                GerenciarCores.obterCorVerde(), sliderVelocidade.getValue());
+                    } else {
+                        if (indiceFila == null) {
+                            indiceFila = new IndiceRegioes(destinoFila);
+                        }
+                        floodFillFila.preencherPeloIndice(indiceFila, clickX, clickY, GerenciarCores.obterCorVerde());
+                    }
                 });
 
                 CompletableFuture.allOf(futurePilha, futureFila).join();
@@ -481,6 +734,11 @@ public class FloodFillApp extends JFrame {
             protected void done() {
                 floodFillEmAndamento = false;
                 btnIniciarFloodFill.setEnabled(true);
+                historicoPilha.confirmarEdicao();
+                historicoFila.confirmarEdicao();
+                canvasPilha.recarregar();
+                canvasFila.recarregar();
+                atualizarBotoesHistorico();
                 statusLabel.setText("Flood Fill concluído! Pilha=Vermelho, Fila=Verde. Animações salvas!");
             }
         };
@@ -521,60 +779,73 @@ public class FloodFillApp extends JFrame {
 
 // Classe auxiliar para animação usando as classes originais
 class SwingFloodFillAnimado {
-    private int[][] matriz;
-    private Component canvas;
+    // Cada frame copia a imagem inteira: por tempo e com fila curta, a memória não cresce com a imagem
+    private static final int FRAMES_A_CADA_MILLIS = 100;
+    private static final int CAPACIDADE_FILA_FRAMES = 4;
+
+    private MatrizPixel matriz;
+    private CanvasPanel canvas;
     private int largura;
     private int altura;
     private ProcessadorImagem processador;
     private String tipo;
     private int frameCount = 0;
 
-    public SwingFloodFillAnimado(int[][] matriz, Component canvas, ProcessadorImagem processador, String tipo) {
+    public SwingFloodFillAnimado(MatrizPixel matriz, CanvasPanel canvas, ProcessadorImagem processador, String tipo) {
         this.matriz = matriz;
         this.canvas = canvas;
-        this.altura = matriz.length;
-        this.largura = matriz[0].length;
+        this.altura = matriz.getAltura();
+        this.largura = matriz.getLargura();
         this.processador = processador;
         this.tipo = tipo;
     }
 
     public void preencherComPilhaAnimado(int x, int y, int novaCor, int velocidade) {
-        PilhaPixel pilha = new PilhaPixel();
+        PilhaPixelCompacta pilha = new PilhaPixelCompacta();
         executarFloodFillAnimado(pilha, x, y, novaCor, velocidade);
     }
 
     public void preencherComFilaAnimado(int x, int y, int novaCor, int velocidade) {
-        FilaPixel fila = new FilaPixel();
+        FilaPixelCompacta fila = new FilaPixelCompacta();
         executarFloodFillAnimado(fila, x, y, novaCor, velocidade);
     }
 
+    // O índice escreve na mesma matriz gravada, então o preenchimento continua entrando no histórico
+    public void preencherPeloIndice(IndiceRegioes indice, int x, int y, int novaCor) {
+        if (!coordenadaValida(x, y)) return;
+
+        indice.preencher(x, y, novaCor);
+        processador.salvarImagemFinal(matriz, tipo + "_final");
+    }
+
     private void executarFloodFillAnimado(EstruturaPixel estrutura, int x, int y, int novaCor, int velocidade) {
         if (!coordenadaValida(x, y)) return;
 
-        int corOriginal = matriz[y][x];
+        int corOriginal = matriz.obterCor(x, y);
         if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) return;
 
-        estrutura.adicionar(new Pixel(x, y));
+        // Frames PNG codificados em segundo plano para não travar a animação
+        GravadorFrames gravador = new GravadorFrames(processador, tipo, 0, FRAMES_A_CADA_MILLIS,
+                CAPACIDADE_FILA_FRAMES, 1);
+
+        estrutura.adicionar(x, y);
         int pixelsProcessados = 0;
 
         while (!estrutura.estaVazia()) {
-            Pixel pixelAtual = estrutura.remover();
-            if (pixelAtual == null) continue;
+            long pixelAtual = estrutura.removerPacked();
 
-            int px = pixelAtual.getX();
-            int py = pixelAtual.getY();
+            int px = Pixel.desempacotarX(pixelAtual);
+            int py = Pixel.desempacotarY(pixelAtual);
 
-            if (coordenadaValida(px, py) && GerenciarCores.coresSaoIguais(matriz[py][px], corOriginal)) {
-                matriz[py][px] = novaCor;
+            if (coordenadaValida(px, py) && GerenciarCores.coresSaoIguais(matriz.obterCor(px, py), corOriginal)) {
+                matriz.definirCor(px, py, novaCor);
                 pixelsProcessados++;
 
                 frameCount++;
-                processador.salvarImagemAnimacao(matriz, frameCount, tipo);
+                gravador.registrarPixel(matriz, px, py, frameCount);
 
-                // Atualizar canvas na thread da UI
-                SwingUtilities.invokeLater(() -> {
-                    canvas.repaint();
-                });
+                // Só o pixel alterado é copiado e redesenhado na thread da UI
+                canvas.marcarAlterado(px, px, py);
 
                 // Pausa para animação
                 if (velocidade > 0) {
@@ -582,6 +853,7 @@ class SwingFloodFillAnimado {
                         Thread.sleep(Math.max(1, 101 - velocidade));
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
+                        gravador.finalizar(matriz);
                         return;
                     }
                 }
@@ -591,15 +863,17 @@ class SwingFloodFillAnimado {
             }
         }
 
+        gravador.finalizar(matriz);
+
         // Salvar imagem final
         processador.salvarImagemFinal(matriz, tipo + "_final");
     }
 
     private void adicionarVizinhos(EstruturaPixel estrutura, int x, int y) {
-        if (coordenadaValida(x, y - 1)) estrutura.adicionar(new Pixel(x, y - 1));
-        if (coordenadaValida(x, y + 1)) estrutura.adicionar(new Pixel(x, y + 1));
-        if (coordenadaValida(x - 1, y)) estrutura.adicionar(new Pixel(x - 1, y));
-        if (coordenadaValida(x + 1, y)) estrutura.adicionar(new Pixel(x + 1, y));
+        if (coordenadaValida(x, y - 1)) estrutura.adicionar(x, y - 1);
+        if (coordenadaValida(x, y + 1)) estrutura.adicionar(x, y + 1);
+        if (coordenadaValida(x - 1, y)) estrutura.adicionar(x - 1, y);
+        if (coordenadaValida(x + 1, y)) estrutura.adicionar(x + 1, y);
     }
 
     private boolean coordenadaValida(int x, int y) {
@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+// Contadores e tempos de uma execução do FloodFillAlgoritmo, exportáveis em JSON e CSV
+class FloodFillMetricas {
+    enum Fase {
+        CARREGAMENTO, BUSCA_SEMENTE, PREENCHIMENTO, FRAMES, SALVAMENTO_FINAL
+    }
+
+    private final String estrategia;
+    private long empilhamentos;
+    private long remocoes;
+    private long remocoesDescartadas;
+    private long pixelsPintados;
+    private int picoEstrutura;
+    private final long[] nanosPorFase = new long[Fase.values().length];
+
+    public FloodFillMetricas(String estrategia) {
+        this.estrategia = estrategia;
+    }
+
+    public void contarEmpilhamento() {
+        empilhamentos++;
+    }
+
+    public void contarRemocao() {
+        remocoes++;
+    }
+
+    // Remoção que não pintou nada (pixel já pintado ou fora da região)
+    public void contarRemocaoDescartada() {
+        remocoesDescartadas++;
+    }
+
+    public void contarPixels(long quantidade) {
+        pixelsPintados += quantidade;
+    }
+
+    public void atualizarPico(int tamanhoEstrutura) {
+        if (tamanhoEstrutura > picoEstrutura) {
+            picoEstrutura = tamanhoEstrutura;
+        }
+    }
+
+    public void registrarTempo(Fase fase, long nanos) {
+        nanosPorFase[fase.ordinal()] += nanos;
+    }
+
+    public String getEstrategia() {
+        return estrategia;
+    }
+
+    public long getEmpilhamentos() {
+        return empilhamentos;
+    }
+
+    public long getRemocoes() {
+        return remocoes;
+    }
+
+    public long getRemocoesDescartadas() {
+        return remocoesDescartadas;
+    }
+
+    public long getPixelsPintados() {
+        return pixelsPintados;
+    }
+
+    public int getPicoEstrutura() {
+        return picoEstrutura;
+    }
+
+    public long getNanos(Fase fase) {
+        return nanosPorFase[fase.ordinal()];
+    }
+
+    public String paraJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"estrategia\":\"").append(estrategia).append('"')
+                .append(",\"empilhamentos\":").append(empilhamentos)
+                .append(",\"remocoes\":").append(remocoes)
+                .append(",\"remocoesDescartadas\":").append(remocoesDescartadas)
+                .append(",\"picoEstrutura\":").append(picoEstrutura)
+                .append(",\"pixelsPintados\":").append(pixelsPintados)
+                .append(",\"nanosPorFase\":{");
+
+        for (Fase fase : Fase.values()) {
+            if (fase.ordinal() > 0) {
+                json.append(',');
+            }
+            json.append('"').append(fase.name().toLowerCase(Locale.ROOT)).append("\":").append(getNanos(fase));
+        }
+
+        return json.append("}}").toString();
+    }
+
+    public static String cabecalhoCsv() {
+        StringBuilder cabecalho = new StringBuilder("estrategia,empilhamentos,remocoes,remocoes_descartadas,pico_estrutura,pixels_pintados");
+        for (Fase fase : Fase.values()) {
+            cabecalho.append(",nanos_").append(fase.name().toLowerCase(Locale.ROOT));
+        }
+        return cabecalho.toString();
+    }
+
+    public String paraLinhaCsv() {
+        StringBuilder linha = new StringBuilder();
+        linha.append(estrategia).append(',').append(empilhamentos).append(',').append(remocoes).append(',')
+                .append(remocoesDescartadas).append(',').append(picoEstrutura).append(',').append(pixelsPintados);
+        for (Fase fase : Fase.values()) {
+            linha.append(',').append(getNanos(fase));
+        }
+        return linha.toString();
+    }
+
+    // Grava um vetor JSON e um CSV com uma linha por execução
+    public static void salvar(List<FloodFillMetricas> execucoes, String caminhoJson, String caminhoCsv) throws IOException {
+        try (PrintWriter json = new PrintWriter(caminhoJson, "UTF-8")) {
+            json.println("[");
+            for (int i = 0; i < execucoes.size(); i++) {
+                json.println("  " + execucoes.get(i).paraJson() + (i < execucoes.size() - 1 ? "," : ""));
+            }
+            json.println("]");
+        }
+
+        try (PrintWriter csv = new PrintWriter(caminhoCsv, "UTF-8")) {
+            csv.println(cabecalhoCsv());
+            for (FloodFillMetricas metricas : execucoes) {
+                csv.println(metricas.paraLinhaCsv());
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Flood Fill paralelo: a imagem é dividida em ladrilhos preenchidos localmente em um ForkJoinPool.
+// Trechos que cruzam a borda de um ladrilho viram sementes do vizinho na rodada seguinte,
+// até que nenhum ladrilho tenha sementes pendentes.
+class FloodFillParalelo {
+    private static final int TAMANHO_LADRILHO_PADRAO = 256;
+
+    private MatrizPixel matriz;
+    private int largura;
+    private int altura;
+    private int tamanhoLadrilho;
+    private int ladrilhosX;
+    private int ladrilhosY;
+    private ForkJoinPool pool;
+
+    public FloodFillParalelo(MatrizPixel matriz) {
+        this(matriz, TAMANHO_LADRILHO_PADRAO, ForkJoinPool.commonPool());
+    }
+
+    public FloodFillParalelo(MatrizPixel matriz, int tamanhoLadrilho, ForkJoinPool pool) {
+        // Só estas matrizes aceitam escritas simultâneas em pixels distintos; as demais guardam
+        // estado compartilhado (linha temporária, cache de índice, ladrilhos preguiçosos, LRU)
+        if (!(matriz instanceof MatrizPixelArray) && !(matriz instanceof RasterPixel)) {
+            throw new IllegalArgumentException("Flood Fill paralelo exige MatrizPixelArray ou RasterPixel, recebeu "
+                    + matriz.getClass().getSimpleName());
+        }
+        this.matriz = matriz;
+        this.largura = matriz.getLargura();
+        this.altura = matriz.getAltura();
+        this.tamanhoLadrilho = tamanhoLadrilho;
+        this.ladrilhosX = (largura + tamanhoLadrilho - 1) / tamanhoLadrilho;
+        this.ladrilhosY = (altura + tamanhoLadrilho - 1) / tamanhoLadrilho;
+        this.pool = pool;
+    }
+
+    // Retorna a quantidade de pixels pintados
+    public long preencher(int x, int y, int novaCor) {
+        int corOriginal = matriz.obterCor(x, y);
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            return 0;
+        }
+
+        // Sementes pendentes por ladrilho, como trechos (y, xInicio, xFim)
+        ListaInteiros[] pendentes = new ListaInteiros[ladrilhosX * ladrilhosY];
+        pendentes[indiceLadrilho(x, y)] = new ListaInteiros();
+        pendentes[indiceLadrilho(x, y)].adicionar(y, x, x);
+
+        long pixelsPintados = 0;
+        List<TarefaLadrilho> tarefas = new ArrayList<>();
+
+        while (true) {
+            tarefas.clear();
+            for (int i = 0; i < pendentes.length; i++) {
+                if (pendentes[i] != null) {
+                    tarefas.add(new TarefaLadrilho(i, pendentes[i], corOriginal, novaCor));
+                    pendentes[i] = null;
+                }
+            }
+
+            if (tarefas.isEmpty()) {
+                break;
+            }
+
+            // Cada ladrilho é tratado por uma única tarefa por rodada, então as escritas nunca se sobrepõem
+            for (Future<TarefaLadrilho> futuro : pool.invokeAll(tarefas)) {
+                TarefaLadrilho tarefa = obterResultado(futuro);
+                pixelsPintados += tarefa.pixelsPintados;
+
+                ListaInteiros saida = tarefa.sementesVizinhos;
+                for (int i = 0; i < saida.tamanho(); i += 4) {
+                    int destino = saida.obter(i);
+                    if (pendentes[destino] == null) {
+                        pendentes[destino] = new ListaInteiros();
+                    }
+                    pendentes[destino].adicionar(saida.obter(i + 1), saida.obter(i + 2), saida.obter(i + 3));
+                }
+            }
+        }
+
+        return pixelsPintados;
+    }
+
+    private TarefaLadrilho obterResultado(Future<TarefaLadrilho> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Flood Fill paralelo interrompido", e);
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException("Falha em um ladrilho do Flood Fill paralelo", e.getCause());
+        }
+    }
+
+    private int indiceLadrilho(int x, int y) {
+        return (y / tamanhoLadrilho) * ladrilhosX + (x / tamanhoLadrilho);
+    }
+
+    // Preenchimento por trechos restrito a um ladrilho
+    private class TarefaLadrilho implements Callable<TarefaLadrilho> {
+        private ListaInteiros trechos;
+        private int corOriginal;
+        private int novaCor;
+        private int xMin;
+        private int xMax;
+        private int yMin;
+        private int yMax;
+
+        private long pixelsPintados;
+        private ListaInteiros sementesVizinhos = new ListaInteiros();
+
+        TarefaLadrilho(int ladrilho, ListaInteiros trechos, int corOriginal, int novaCor) {
+            this.trechos = trechos;
+            this.corOriginal = corOriginal;
+            this.novaCor = novaCor;
+            this.xMin = (ladrilho % ladrilhosX) * tamanhoLadrilho;
+            this.yMin = (ladrilho / ladrilhosX) * tamanhoLadrilho;
+            this.xMax = Math.min(xMin + tamanhoLadrilho, largura) - 1;
+            this.yMax = Math.min(yMin + tamanhoLadrilho, altura) - 1;
+        }
+
+        @Override
+        public TarefaLadrilho call() {
+            while (!trechos.estaVazia()) {
+                int xFim = trechos.removerUltimo();
+                int xInicio = trechos.removerUltimo();
+                int y = trechos.removerUltimo();
+
+                int x = xInicio;
+                while (x <= xFim) {
+                    if (!GerenciarCores.coresSaoIguais(matriz.obterCor(x, y), corOriginal)) {
+                        x++;
+                        continue;
+                    }
+
+                    // Expande dentro dos limites do ladrilho
+                    int esquerda = x;
+                    while (esquerda > xMin && GerenciarCores.coresSaoIguais(matriz.obterCor(esquerda - 1, y), corOriginal)) {
+                        esquerda--;
+                    }
+
+                    int direita = x;
+                    while (direita < xMax && GerenciarCores.coresSaoIguais(matriz.obterCor(direita + 1, y), corOriginal)) {
+                        direita++;
+                    }
+
+                    matriz.preencherTrecho(y, esquerda, direita, novaCor);
+                    pixelsPintados += direita - esquerda + 1;
+
+                    // Continuação horizontal em ladrilhos vizinhos
+                    if (esquerda == xMin && xMin > 0) {
+                        enviarAoVizinho(y, xMin - 1, xMin - 1);
+                    }
+                    if (direita == xMax && xMax < largura - 1) {
+                        enviarAoVizinho(y, xMax + 1, xMax + 1);
+                    }
+
+                    // Linhas de cima e de baixo: locais ou enviadas ao ladrilho vizinho
+                    if (y > yMin) {
+                        trechos.adicionar(y - 1, esquerda, direita);
+                    } else if (y > 0) {
+                        enviarAoVizinho(y - 1, esquerda, direita);
+                    }
+                    if (y < yMax) {
+                        trechos.adicionar(y + 1, esquerda, direita);
+                    } else if (y < altura - 1) {
+                        enviarAoVizinho(y + 1, esquerda, direita);
+                    }
+
+                    x = direita + 2;
+                }
+            }
+            return this;
+        }
+
+        private void enviarAoVizinho(int y, int xInicio, int xFim) {
+            sementesVizinhos.adicionar(indiceLadrilho(xInicio, y));
+            sementesVizinhos.adicionar(y, xInicio, xFim);
+        }
+    }
+}
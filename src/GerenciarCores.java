@@ -22,4 +22,8 @@ class GerenciarCores {
     public static int obterCorPreta() {
         return 0xFF000000; // Preto em formato ARGB
     }
+
+    public static int obterCorSentinela() {
+        return 0x00000000; // Transparente, reservado para a moldura dos rasters com margem
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Grava frames PNG em segundo plano: a cada N pixels e/ou a cada T ms a matriz é copiada
+// e entregue a uma fila limitada consumida por threads de codificação.
+// Com a fila cheia o frame é descartado, então o preenchimento nunca espera pelo PNG.
+class GravadorFrames implements SaidaAnimacao {
+    private ProcessadorImagem processador;
+    private String tipo;
+    private int aCadaPixels;
+    private long aCadaNanos;
+    private ThreadPoolExecutor codificadores;
+
+    private int pixelsDesdeUltimoFrame;
+    private long instanteUltimoFrame;
+    private int framesEnfileirados;
+    private int framesDescartados;
+
+    public GravadorFrames(ProcessadorImagem processador, String tipo, int aCadaPixels, long aCadaMillis,
+                          int capacidadeFila, int threadsCodificacao) {
+        this.processador = processador;
+        this.tipo = tipo;
+        this.aCadaPixels = aCadaPixels;
+        this.aCadaNanos = TimeUnit.MILLISECONDS.toNanos(aCadaMillis);
+        this.codificadores = new ThreadPoolExecutor(threadsCodificacao, threadsCodificacao,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                    Thread thread = new Thread(r, "gravador-frames-" + tipo);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.instanteUltimoFrame = System.nanoTime();
+    }
+
+    @Override
+    public void registrarTrecho(MatrizPixel matriz, int y, int xInicio, int xFim, int frame) {
+        pixelsDesdeUltimoFrame += xFim - xInicio + 1;
+
+        boolean porPixels = aCadaPixels > 0 && pixelsDesdeUltimoFrame >= aCadaPixels;
+        boolean porTempo = aCadaNanos > 0 && System.nanoTime() - instanteUltimoFrame >= aCadaNanos;
+
+        if (porPixels || porTempo) {
+            capturarFrame(matriz);
+        }
+    }
+
+    @Override
+    public void finalizar(MatrizPixel matriz) {
+        // Garante que o último estado também vire frame
+        if (pixelsDesdeUltimoFrame > 0) {
+            capturarFrame(matriz);
+        }
+
+        codificadores.shutdown();
+        try {
+            codificadores.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.println("✓ Frames " + tipo + " gravados em segundo plano: " + framesEnfileirados
+                + " (descartados com a fila cheia: " + framesDescartados + ")");
+    }
+
+    private void capturarFrame(MatrizPixel matriz) {
+        pixelsDesdeUltimoFrame = 0;
+        instanteUltimoFrame = System.nanoTime();
+
+        // Não vale a pena copiar a matriz se o frame seria recusado
+        if (codificadores.getQueue().remainingCapacity() == 0) {
+            framesDescartados++;
+            return;
+        }
+
+        int largura = matriz.getLargura();
+        int altura = matriz.getAltura();
+        int[] copia = new int[largura * altura];
+        for (int y = 0; y < altura; y++) {
+            matriz.copiarLinha(y, copia, y * largura);
+        }
+
+        RasterPixel instantaneo = new RasterPixel(copia, largura, altura, largura, 0);
+        int numeroFrame = ++framesEnfileirados;
+        codificadores.execute(() -> processador.salvarImagemAnimacao(instantaneo, numeroFrame, tipo));
+    }
+
+    public int getFramesEnfileirados() {
+        return framesEnfileirados;
+    }
+
+    public int getFramesDescartados() {
+        return framesDescartados;
+    }
+}
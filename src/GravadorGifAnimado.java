@@ -0,0 +1,241 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+// Grava toda a animação em um único GIF, escrito incrementalmente durante o preenchimento.
+// O primeiro frame é a imagem inteira; os demais trazem apenas o retângulo alterado desde o frame anterior.
+class GravadorGifAnimado implements SaidaAnimacao {
+    private static final String FORMATO_METADADOS = "javax_imageio_gif_image_1.0";
+    private static final String FORMATO_METADADOS_FLUXO = "javax_imageio_gif_stream_1.0";
+
+    // Paleta com as cores de GerenciarCores; qualquer outra cor vira cinza.
+    // O GIF exige uma tabela com potência de 2 entradas, por isso o cinza se repete no fim.
+    private static final int INDICE_CINZA = 5;
+    private static final int[] PALETA = {
+            GerenciarCores.obterCorBranca(), GerenciarCores.obterCorPreta(), GerenciarCores.obterCorVermelha(),
+            GerenciarCores.obterCorVerde(), GerenciarCores.obterCorAzul(), 0xFF808080, 0xFF808080, 0xFF808080
+    };
+    private static final IndexColorModel MODELO_PALETA = new IndexColorModel(3, PALETA.length, PALETA, 0, false, -1,
+            java.awt.image.DataBuffer.TYPE_BYTE);
+
+    private String caminhoGif;
+    private int aCadaPixels;
+    private int atrasoCentesimos;
+
+    private ImageWriter escritor;
+    private ImageOutputStream saida;
+    private boolean falhou;
+
+    private int pixelsDesdeUltimoFrame;
+    private int xMin = Integer.MAX_VALUE;
+    private int yMin = Integer.MAX_VALUE;
+    private int xMax = -1;
+    private int yMax = -1;
+    private int framesGravados;
+
+    public GravadorGifAnimado(ProcessadorImagem processador, String tipo, int aCadaPixels) {
+        this(processador, tipo, aCadaPixels, 2);
+    }
+
+    public GravadorGifAnimado(ProcessadorImagem processador, String tipo, int aCadaPixels, int atrasoCentesimos) {
+        this.caminhoGif = processador.getDiretorioSaida() + "/animacao_" + tipo.toLowerCase() + ".gif";
+        this.aCadaPixels = Math.max(1, aCadaPixels);
+        this.atrasoCentesimos = atrasoCentesimos;
+    }
+
+    public String getCaminhoGif() {
+        return caminhoGif;
+    }
+
+    public int getFramesGravados() {
+        return framesGravados;
+    }
+
+    @Override
+    public void registrarTrecho(MatrizPixel matriz, int y, int xInicio, int xFim, int frame) {
+        if (falhou) {
+            return;
+        }
+
+        xMin = Math.min(xMin, xInicio);
+        xMax = Math.max(xMax, xFim);
+        yMin = Math.min(yMin, y);
+        yMax = Math.max(yMax, y);
+        pixelsDesdeUltimoFrame += xFim - xInicio + 1;
+
+        if (escritor == null || pixelsDesdeUltimoFrame >= aCadaPixels) {
+            gravarFrame(matriz);
+        }
+    }
+
+    @Override
+    public void finalizar(MatrizPixel matriz) {
+        if (escritor == null) {
+            return;
+        }
+
+        if (pixelsDesdeUltimoFrame > 0) {
+            gravarFrame(matriz);
+        }
+
+        try {
+            if (!falhou) {
+                escritor.endWriteSequence();
+            }
+            saida.close();
+            System.out.println("✓ GIF animado salvo: " + caminhoGif + " (" + framesGravados + " frames, "
+                    + new File(caminhoGif).length() + " bytes)");
+        } catch (IOException e) {
+            System.err.println("✗ ERRO ao finalizar GIF animado: " + e.getMessage());
+        } finally {
+            escritor.dispose();
+        }
+    }
+
+    private void gravarFrame(MatrizPixel matriz) {
+        try {
+            if (escritor == null) {
+                abrir();
+                // Primeiro frame: imagem inteira
+                xMin = 0;
+                yMin = 0;
+                xMax = matriz.getLargura() - 1;
+                yMax = matriz.getAltura() - 1;
+            }
+
+            BufferedImage retangulo = extrairRetangulo(matriz, xMin, yMin, xMax - xMin + 1, yMax - yMin + 1);
+            IIOMetadata metadados = criarMetadados(retangulo, xMin, yMin, framesGravados == 0);
+            escritor.writeToSequence(new IIOImage(retangulo, null, metadados), null);
+            framesGravados++;
+        } catch (IOException e) {
+            falhou = true;
+            System.err.println("✗ ERRO ao gravar frame no GIF " + caminhoGif + ": " + e.getMessage());
+        }
+
+        pixelsDesdeUltimoFrame = 0;
+        xMin = Integer.MAX_VALUE;
+        yMin = Integer.MAX_VALUE;
+        xMax = -1;
+        yMax = -1;
+    }
+
+    private void abrir() throws IOException {
+        Iterator<ImageWriter> escritores = ImageIO.getImageWritersByFormatName("gif");
+        if (!escritores.hasNext()) {
+            throw new IOException("Nenhum escritor GIF disponível");
+        }
+
+        escritor = escritores.next();
+        File arquivo = new File(caminhoGif);
+        arquivo.delete();
+        saida = ImageIO.createImageOutputStream(arquivo);
+        escritor.setOutput(saida);
+        escritor.prepareWriteSequence(criarMetadadosFluxo());
+    }
+
+    private BufferedImage extrairRetangulo(MatrizPixel matriz, int x0, int y0, int largura, int altura) {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_BYTE_INDEXED, MODELO_PALETA);
+        byte[] indices = ((java.awt.image.DataBufferByte) imagem.getRaster().getDataBuffer()).getData();
+
+        for (int y = 0; y < altura; y++) {
+            for (int x = 0; x < largura; x++) {
+                indices[y * largura + x] = indicePaleta(matriz.obterCor(x0 + x, y0 + y));
+            }
+        }
+
+        return imagem;
+    }
+
+    private static byte indicePaleta(int cor) {
+        for (int i = 0; i < INDICE_CINZA; i++) {
+            if (PALETA[i] == cor) {
+                return (byte) i;
+            }
+        }
+        return (byte) INDICE_CINZA;
+    }
+
+    // A paleta vai como tabela global; sem ela o escritor grava uma paleta padrão de 256 cores
+    private IIOMetadata criarMetadadosFluxo() throws IOException {
+        IIOMetadata metadados = escritor.getDefaultStreamMetadata(null);
+        IIOMetadataNode raiz = (IIOMetadataNode) metadados.getAsTree(FORMATO_METADADOS_FLUXO);
+
+        IIOMetadataNode tabela = obterNo(raiz, "GlobalColorTable");
+        while (tabela.hasChildNodes()) {
+            tabela.removeChild(tabela.getFirstChild());
+        }
+        tabela.setAttribute("sizeOfGlobalColorTable", Integer.toString(PALETA.length));
+        tabela.setAttribute("backgroundColorIndex", "0");
+        tabela.setAttribute("sortFlag", "FALSE");
+
+        for (int i = 0; i < PALETA.length; i++) {
+            IIOMetadataNode entrada = new IIOMetadataNode("ColorTableEntry");
+            entrada.setAttribute("index", Integer.toString(i));
+            entrada.setAttribute("red", Integer.toString((PALETA[i] >> 16) & 0xFF));
+            entrada.setAttribute("green", Integer.toString((PALETA[i] >> 8) & 0xFF));
+            entrada.setAttribute("blue", Integer.toString(PALETA[i] & 0xFF));
+            tabela.appendChild(entrada);
+        }
+
+        metadados.setFromTree(FORMATO_METADADOS_FLUXO, raiz);
+        return metadados;
+    }
+
+    private IIOMetadata criarMetadados(BufferedImage imagem, int x, int y, boolean primeiroFrame) throws IOException {
+        IIOMetadata metadados = escritor.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(imagem), null);
+        IIOMetadataNode raiz = (IIOMetadataNode) metadados.getAsTree(FORMATO_METADADOS);
+
+        IIOMetadataNode descritor = obterNo(raiz, "ImageDescriptor");
+        descritor.setAttribute("imageLeftPosition", Integer.toString(x));
+        descritor.setAttribute("imageTopPosition", Integer.toString(y));
+        descritor.setAttribute("interlaceFlag", "FALSE");
+
+        // Todos os frames usam a tabela global
+        for (int i = raiz.getLength() - 1; i >= 0; i--) {
+            if (raiz.item(i).getNodeName().equals("LocalColorTable")) {
+                raiz.removeChild(raiz.item(i));
+            }
+        }
+
+        // Os frames se acumulam: cada retângulo é desenhado sobre o anterior
+        IIOMetadataNode controle = obterNo(raiz, "GraphicControlExtension");
+        controle.setAttribute("disposalMethod", "doNotDispose");
+        controle.setAttribute("userInputFlag", "FALSE");
+        controle.setAttribute("transparentColorFlag", "FALSE");
+        controle.setAttribute("transparentColorIndex", "0");
+        controle.setAttribute("delayTime", Integer.toString(atrasoCentesimos));
+
+        if (primeiroFrame) {
+            IIOMetadataNode extensoes = obterNo(raiz, "ApplicationExtensions");
+            IIOMetadataNode repeticao = new IIOMetadataNode("ApplicationExtension");
+            repeticao.setAttribute("applicationID", "NETSCAPE");
+            repeticao.setAttribute("authenticationCode", "2.0");
+            repeticao.setUserObject(new byte[]{0x1, 0, 0});
+            extensoes.appendChild(repeticao);
+        }
+
+        metadados.setFromTree(FORMATO_METADADOS, raiz);
+        return metadados;
+    }
+
+    private static IIOMetadataNode obterNo(IIOMetadataNode raiz, String nome) {
+        for (int i = 0; i < raiz.getLength(); i++) {
+            if (raiz.item(i).getNodeName().equalsIgnoreCase(nome)) {
+                return (IIOMetadataNode) raiz.item(i);
+            }
+        }
+
+        IIOMetadataNode no = new IIOMetadataNode(nome);
+        raiz.appendChild(no);
+        return no;
+    }
+}
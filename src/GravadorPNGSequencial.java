@@ -0,0 +1,142 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Grava um PNG RGBA de 8 bits linha a linha: cada linha é comprimida assim que chega e os dados
+// saem em blocos IDAT de tamanho fixo. Só uma linha fica em memória, para imagens que não cabem
+// numa BufferedImage (RasterMapeado). As linhas usam o filtro Sub, que favorece áreas de cor sólida.
+class GravadorPNGSequencial implements AutoCloseable {
+    private static final long ASSINATURA = 0x89504E470D0A1A0AL;
+    private static final int BYTES_POR_IDAT = 1 << 16;
+
+    private final DataOutputStream arquivo;
+    private final SaidaIdat saidaIdat;
+    private final DeflaterOutputStream compressor;
+    private final Deflater deflater;
+    private final int largura;
+    private final int altura;
+    private final byte[] linha;
+    private int linhasGravadas;
+
+    public GravadorPNGSequencial(File destino, int largura, int altura) throws IOException {
+        if ((long) largura * 4 + 1 > Integer.MAX_VALUE) {
+            throw new IOException("Linha grande demais para o PNG: " + largura + " pixels");
+        }
+
+        this.largura = largura;
+        this.altura = altura;
+        this.linha = new byte[1 + largura * 4];
+        this.arquivo = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(destino), 1 << 16));
+
+        try {
+            arquivo.writeLong(ASSINATURA);
+
+            byte[] ihdr = new byte[13];
+            java.nio.ByteBuffer.wrap(ihdr).putInt(largura).putInt(altura)
+                    .put((byte) 8)  // bits por amostra
+                    .put((byte) 6)  // RGBA
+                    .put((byte) 0).put((byte) 0).put((byte) 0);
+            escreverChunk("IHDR", ihdr, ihdr.length);
+        } catch (IOException e) {
+            arquivo.close();
+            throw e;
+        }
+
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.saidaIdat = new SaidaIdat();
+        this.compressor = new DeflaterOutputStream(saidaIdat, deflater, BYTES_POR_IDAT);
+    }
+
+    // Comprime a linha origem[deslocamento .. deslocamento + largura), em ARGB
+    public void gravarLinha(int[] origem, int deslocamento) throws IOException {
+        if (linhasGravadas >= altura) {
+            throw new IOException("O PNG já recebeu todas as " + altura + " linhas");
+        }
+
+        linha[0] = 1; // Sub: cada byte menos o do pixel à esquerda
+        int anterior = 0;
+        for (int x = 0, j = 1; x < largura; x++, j += 4) {
+            int cor = origem[deslocamento + x];
+            linha[j] = (byte) ((cor >>> 16) - (anterior >>> 16));
+            linha[j + 1] = (byte) ((cor >>> 8) - (anterior >>> 8));
+            linha[j + 2] = (byte) (cor - anterior);
+            linha[j + 3] = (byte) ((cor >>> 24) - (anterior >>> 24));
+            anterior = cor;
+        }
+
+        compressor.write(linha);
+        linhasGravadas++;
+    }
+
+    // Fecha os dados comprimidos e grava o IEND; falha se faltaram linhas
+    @Override
+    public void close() throws IOException {
+        try {
+            if (linhasGravadas != altura) {
+                throw new IOException("PNG incompleto: " + linhasGravadas + " de " + altura + " linhas");
+            }
+            compressor.finish();
+            saidaIdat.flush();
+            escreverChunk("IEND", new byte[0], 0);
+        } finally {
+            deflater.end();
+            arquivo.close();
+        }
+    }
+
+    private void escreverChunk(String tipo, byte[] conteudo, int tamanho) throws IOException {
+        byte[] bytesTipo = tipo.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(bytesTipo);
+        crc.update(conteudo, 0, tamanho);
+
+        arquivo.writeInt(tamanho);
+        arquivo.write(bytesTipo);
+        arquivo.write(conteudo, 0, tamanho);
+        arquivo.writeInt((int) crc.getValue());
+    }
+
+    // Junta a saída do compressor e a emite em chunks IDAT de até BYTES_POR_IDAT
+    private class SaidaIdat extends OutputStream {
+        private final byte[] bloco = new byte[BYTES_POR_IDAT];
+        private int usados;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] origem, int inicio, int quantidade) throws IOException {
+            while (quantidade > 0) {
+                int copiar = Math.min(quantidade, bloco.length - usados);
+                System.arraycopy(origem, inicio, bloco, usados, copiar);
+                usados += copiar;
+                inicio += copiar;
+                quantidade -= copiar;
+                if (usados == bloco.length) {
+                    flush();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (usados > 0) {
+                escreverChunk("IDAT", bloco, usados);
+                usados = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
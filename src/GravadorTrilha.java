@@ -0,0 +1,92 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+// Grava apenas a ordem dos pixels pintados em um arquivo binário compacto, sem gerar imagens.
+// Cada evento (pixel ou trecho) vira um frame; o ReprodutorTrilha reconstrói qualquer frame sob demanda.
+//
+// Formato: "FFT1", largura, altura, cor pintada, caminho da imagem base (UTF) e, para cada evento,
+// um varint com (zigzag(delta do índice inicial) << 1 | trecho) seguido, se trecho, de um varint com comprimento - 2.
+class GravadorTrilha implements SaidaAnimacao {
+    static final int ASSINATURA = 0x46465431; // "FFT1"
+
+    private String caminhoTrilha;
+    private String caminhoImagemBase;
+    private DataOutputStream saida;
+    private long indiceAnterior;
+    private int eventos;
+    private boolean falhou;
+
+    public GravadorTrilha(ProcessadorImagem processador, String tipo, String caminhoImagemBase) {
+        this.caminhoTrilha = processador.getDiretorioSaida() + "/trilha_" + tipo.toLowerCase() + ".fft";
+        this.caminhoImagemBase = caminhoImagemBase;
+    }
+
+    @Override
+    public void registrarTrecho(MatrizPixel matriz, int y, int xInicio, int xFim, int frame) {
+        if (falhou) {
+            return;
+        }
+
+        try {
+            if (saida == null) {
+                abrir(matriz, matriz.obterCor(xInicio, y));
+            }
+
+            long indice = (long) y * matriz.getLargura() + xInicio;
+            long delta = indice - indiceAnterior;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            int comprimento = xFim - xInicio + 1;
+
+            if (comprimento == 1) {
+                escreverVarint(zigzag << 1);
+            } else {
+                escreverVarint((zigzag << 1) | 1);
+                escreverVarint(comprimento - 2);
+            }
+
+            indiceAnterior = indice;
+            eventos++;
+        } catch (IOException e) {
+            falhou = true;
+            System.err.println("✗ ERRO ao gravar trilha " + caminhoTrilha + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void finalizar(MatrizPixel matriz) {
+        if (saida == null) {
+            return;
+        }
+
+        try {
+            saida.close();
+            System.out.println("✓ Trilha salva: " + caminhoTrilha + " (" + eventos + " frames, "
+                    + new java.io.File(caminhoTrilha).length() + " bytes)");
+        } catch (IOException e) {
+            System.err.println("✗ ERRO ao fechar trilha " + caminhoTrilha + ": " + e.getMessage());
+        }
+    }
+
+    private void abrir(MatrizPixel matriz, int cor) throws IOException {
+        saida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(caminhoTrilha), 1 << 16));
+        saida.writeInt(ASSINATURA);
+        saida.writeInt(matriz.getLargura());
+        saida.writeInt(matriz.getAltura());
+        saida.writeInt(cor);
+        saida.writeUTF(caminhoImagemBase);
+    }
+
+    private void escreverVarint(long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            saida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.write((int) valor);
+    }
+
+    public String getCaminhoTrilha() {
+        return caminhoTrilha;
+    }
+}
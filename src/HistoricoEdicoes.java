@@ -0,0 +1,134 @@
+import java.util.ArrayDeque;
+
+// Pilhas de desfazer/refazer com as diferenças de cada edição em trechos. Desfazer custa o
+// tamanho da região alterada. Passando do orçamento de bytes, as edições mais antigas saem primeiro.
+class HistoricoEdicoes {
+    public static final long LIMITE_PADRAO_BYTES = 64L * 1024 * 1024;
+
+    private final MatrizPixel matriz;
+    private final MatrizPixelGravada gravada;
+
+    // O topo (primeiro elemento) é a edição mais recente
+    private final ArrayDeque<EdicaoTrechos> desfazer = new ArrayDeque<>();
+    private final ArrayDeque<EdicaoTrechos> refazer = new ArrayDeque<>();
+
+    private long limiteBytes;
+    private long bytesUsados;
+    private int edicoesDescartadas;
+
+    public HistoricoEdicoes(MatrizPixel matriz) {
+        this(matriz, LIMITE_PADRAO_BYTES);
+    }
+
+    public HistoricoEdicoes(MatrizPixel matriz, long limiteBytes) {
+        if (limiteBytes < 0) {
+            throw new IllegalArgumentException("O orçamento do histórico não pode ser negativo");
+        }
+        this.matriz = matriz;
+        this.gravada = new MatrizPixelGravada(matriz);
+        this.limiteBytes = limiteBytes;
+    }
+
+    // As edições devem ser feitas através desta matriz para entrarem no histórico
+    public MatrizPixel getMatrizGravada() {
+        return gravada;
+    }
+
+    // Fecha a edição em andamento como um passo de desfazer; false se nada mudou
+    public boolean confirmarEdicao() {
+        EdicaoTrechos edicao = gravada.concluirEdicao();
+        if (edicao == null) {
+            return false;
+        }
+
+        while (!refazer.isEmpty()) {
+            bytesUsados -= refazer.pop().getBytes();
+        }
+
+        desfazer.push(edicao);
+        bytesUsados += edicao.getBytes();
+        respeitarLimite();
+        return true;
+    }
+
+    // Retorna a edição desfeita, para quem exibe a matriz atualizar só a área dela; null se não havia
+    public EdicaoTrechos desfazer() {
+        confirmarEdicao();
+        if (desfazer.isEmpty()) {
+            return null;
+        }
+
+        EdicaoTrechos edicao = desfazer.pop();
+        edicao.restaurar(matriz);
+        refazer.push(edicao);
+        return edicao;
+    }
+
+    // Retorna a edição refeita, ou null se não havia
+    public EdicaoTrechos refazer() {
+        if (refazer.isEmpty()) {
+            return null;
+        }
+
+        EdicaoTrechos edicao = refazer.pop();
+        edicao.reaplicar(matriz);
+        desfazer.push(edicao);
+        return edicao;
+    }
+
+    public boolean podeDesfazer() {
+        return !desfazer.isEmpty();
+    }
+
+    public boolean podeRefazer() {
+        return !refazer.isEmpty();
+    }
+
+    // Esquece o histórico sem mexer na matriz, por exemplo ao trocar de imagem
+    public void limpar() {
+        gravada.descartarEdicao();
+        desfazer.clear();
+        refazer.clear();
+        bytesUsados = 0;
+    }
+
+    public void setLimiteBytes(long limiteBytes) {
+        if (limiteBytes < 0) {
+            throw new IllegalArgumentException("O orçamento do histórico não pode ser negativo");
+        }
+        this.limiteBytes = limiteBytes;
+        respeitarLimite();
+    }
+
+    public long getLimiteBytes() {
+        return limiteBytes;
+    }
+
+    public long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    public int getEdicoesDescartadas() {
+        return edicoesDescartadas;
+    }
+
+    public int quantidadeDesfazer() {
+        return desfazer.size();
+    }
+
+    public int quantidadeRefazer() {
+        return refazer.size();
+    }
+
+    // Descarta a partir da edição mais antiga; o refazer só perde entradas se o desfazer esvaziar
+    private void respeitarLimite() {
+        while (bytesUsados > limiteBytes && !desfazer.isEmpty()) {
+            bytesUsados -= desfazer.removeLast().getBytes();
+            edicoesDescartadas++;
+        }
+        while (bytesUsados > limiteBytes && !refazer.isEmpty()) {
+            bytesUsados -= refazer.removeLast().getBytes();
+            edicoesDescartadas++;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+// Índice de regiões de uma matriz: rótulo de cada pixel e lista de trechos (y, xInicio, xFim) de cada região.
+// Um preenchimento em região já indexada repinta direto pelos trechos, sem percorrer a imagem.
+// Regiões que passam a ter a mesma cor de uma vizinha são fundidas, mantendo o índice válido.
+class IndiceRegioes {
+    private MatrizPixel matriz;
+    private int largura;
+    private int altura;
+    private int[] rotulos;
+    private int[] paiRotulo;
+    private int[] corPorRotulo;
+    private ListaInteiros[] trechosPorRotulo;
+
+    public IndiceRegioes(MatrizPixel matriz) {
+        this.matriz = matriz;
+        this.largura = matriz.getLargura();
+        this.altura = matriz.getAltura();
+
+        ResultadoRotulacao rotulacao = new RotuladorComponentes(Runtime.getRuntime().availableProcessors()).rotular(matriz);
+        int numeroComponentes = rotulacao.getNumeroComponentes();
+
+        this.rotulos = rotulacao.getRotulos();
+        this.corPorRotulo = rotulacao.getCorPorRotulo();
+        this.paiRotulo = new int[numeroComponentes];
+        this.trechosPorRotulo = new ListaInteiros[numeroComponentes];
+
+        for (int r = 0; r < numeroComponentes; r++) {
+            paiRotulo[r] = r;
+            trechosPorRotulo[r] = new ListaInteiros(3);
+        }
+
+        // Trechos: sequências horizontais com o mesmo rótulo
+        for (int y = 0; y < altura; y++) {
+            int inicioTrecho = 0;
+            for (int x = 1; x <= largura; x++) {
+                if (x == largura || rotulos[y * largura + x] != rotulos[y * largura + inicioTrecho]) {
+                    trechosPorRotulo[rotulos[y * largura + inicioTrecho]].adicionar(y, inicioTrecho, x - 1);
+                    inicioTrecho = x;
+                }
+            }
+        }
+    }
+
+    public int obterRegiao(int x, int y) {
+        return encontrarRaiz(rotulos[y * largura + x]);
+    }
+
+    // Repinta a região do ponto e retorna a quantidade de pixels pintados
+    public long preencher(int x, int y, int novaCor) {
+        int regiao = obterRegiao(x, y);
+        if (GerenciarCores.coresSaoIguais(corPorRotulo[regiao], novaCor)) {
+            return 0;
+        }
+
+        ListaInteiros trechos = trechosPorRotulo[regiao];
+        long pixelsPintados = 0;
+
+        for (int i = 0; i < trechos.tamanho(); i += 3) {
+            int ty = trechos.obter(i);
+            int xInicio = trechos.obter(i + 1);
+            int xFim = trechos.obter(i + 2);
+            matriz.preencherTrecho(ty, xInicio, xFim, novaCor);
+            pixelsPintados += xFim - xInicio + 1;
+        }
+        corPorRotulo[regiao] = novaCor;
+
+        fundirVizinhasDaMesmaCor(regiao);
+        return pixelsPintados;
+    }
+
+    // Após a troca de cor, regiões vizinhas com a nova cor passam a formar uma só
+    private void fundirVizinhasDaMesmaCor(int regiao) {
+        ListaInteiros trechos = trechosPorRotulo[regiao];
+        int cor = corPorRotulo[regiao];
+        int tamanhoOriginal = trechos.tamanho();
+
+        for (int i = 0; i < tamanhoOriginal; i += 3) {
+            int y = trechos.obter(i);
+            int xInicio = trechos.obter(i + 1);
+            int xFim = trechos.obter(i + 2);
+
+            if (xInicio > 0) {
+                regiao = fundirSeMesmaCor(regiao, xInicio - 1, y, cor);
+            }
+            if (xFim < largura - 1) {
+                regiao = fundirSeMesmaCor(regiao, xFim + 1, y, cor);
+            }
+            for (int x = xInicio; x <= xFim; x++) {
+                if (y > 0) {
+                    regiao = fundirSeMesmaCor(regiao, x, y - 1, cor);
+                }
+                if (y < altura - 1) {
+                    regiao = fundirSeMesmaCor(regiao, x, y + 1, cor);
+                }
+            }
+        }
+    }
+
+    private int fundirSeMesmaCor(int regiao, int x, int y, int cor) {
+        int vizinha = encontrarRaiz(rotulos[y * largura + x]);
+        if (vizinha == regiao || !GerenciarCores.coresSaoIguais(corPorRotulo[vizinha], cor)) {
+            return regiao;
+        }
+
+        // A lista menor é anexada à maior
+        int maior = trechosPorRotulo[regiao].tamanho() >= trechosPorRotulo[vizinha].tamanho() ? regiao : vizinha;
+        int menor = maior == regiao ? vizinha : regiao;
+
+        ListaInteiros destino = trechosPorRotulo[maior];
+        ListaInteiros origem = trechosPorRotulo[menor];
+        for (int i = 0; i < origem.tamanho(); i++) {
+            destino.adicionar(origem.obter(i));
+        }
+
+        trechosPorRotulo[menor] = null;
+        paiRotulo[menor] = maior;
+        return maior;
+    }
+
+    private int encontrarRaiz(int rotulo) {
+        while (paiRotulo[rotulo] != rotulo) {
+            paiRotulo[rotulo] = paiRotulo[paiRotulo[rotulo]];
+            rotulo = paiRotulo[rotulo];
+        }
+        return rotulo;
+    }
+}
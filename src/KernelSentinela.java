@@ -0,0 +1,55 @@
+// Kernel de preenchimento sem verificação de coordenadas: o raster tem uma moldura de 1 pixel
+// com uma cor sentinela diferente da cor original, então nenhum vizinho sai da imagem.
+class KernelSentinela {
+    private KernelSentinela() {
+    }
+
+    // Retorna a quantidade de pixels pintados; o raster deve ter margem de pelo menos 1 pixel
+    public static long preencher(RasterPixel raster, int x, int y, int novaCor, Conectividade conectividade) {
+        if (raster.getMargem() < 1) {
+            throw new IllegalArgumentException("O kernel com sentinela exige um raster com margem");
+        }
+
+        int[] dados = raster.getDados();
+        int inicio = raster.indice(x, y);
+        int corOriginal = dados[inicio];
+
+        if (GerenciarCores.coresSaoIguais(corOriginal, novaCor)) {
+            return 0;
+        }
+
+        // A moldura nunca pode ter a cor original
+        int sentinela = GerenciarCores.obterCorSentinela();
+        if (GerenciarCores.coresSaoIguais(corOriginal, sentinela)) {
+            sentinela = ~sentinela;
+        }
+        raster.pintarMargem(sentinela);
+
+        int[] deslocamentos = conectividade.deslocamentos(raster.getStride());
+        int[] pilha = new int[256];
+        int topo = 0;
+        long pixelsPintados = 1;
+
+        // Pinta ao empilhar: cada pixel entra na pilha no máximo uma vez
+        dados[inicio] = novaCor;
+        pilha[topo++] = inicio;
+
+        while (topo > 0) {
+            int atual = pilha[--topo];
+
+            for (int deslocamento : deslocamentos) {
+                int vizinho = atual + deslocamento;
+                if (dados[vizinho] == corOriginal) {
+                    dados[vizinho] = novaCor;
+                    if (topo == pilha.length) {
+                        pilha = java.util.Arrays.copyOf(pilha, pilha.length * 2);
+                    }
+                    pilha[topo++] = vizinho;
+                    pixelsPintados++;
+                }
+            }
+        }
+
+        return pixelsPintados;
+    }
+}
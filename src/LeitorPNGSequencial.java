@@ -0,0 +1,299 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Decodifica um PNG linha a linha em uma só passada: os blocos IDAT são inflados em sequência e cada
+// linha tem o filtro desfeito a partir da anterior. Só duas linhas ficam em memória, qualquer que seja
+// a altura, ao contrário do ImageReader, que decodifica a imagem inteira (ou relê tudo a cada região).
+//
+// Aceita PNG não entrelaçado de qualquer tipo de cor, com 1 a 16 bits por amostra. Amostras de 16 bits
+// usam o byte mais significativo; a transparência por tRNS só é aplicada às imagens com paleta.
+class LeitorPNGSequencial implements AutoCloseable {
+    private static final long ASSINATURA = 0x89504E470D0A1A0AL;
+    private static final int IHDR = 0x49484452;
+    private static final int PLTE = 0x504C5445;
+    private static final int TRNS = 0x74524E53;
+    private static final int IDAT = 0x49444154;
+
+    private final DataInputStream arquivo;
+    private DataInputStream dados;
+
+    private int largura;
+    private int altura;
+    private int profundidade;
+    private int tipoCor;
+    private int amostrasPorPixel;
+    private int bytesPorPixel;
+    private int bytesPorLinha;
+    private int[] paleta;
+
+    private byte[] linhaAtual;
+    private byte[] linhaAnterior;
+    private int linhasLidas;
+
+    // Bytes que faltam no IDAT corrente; -1 depois do último
+    private int restanteIdat;
+
+    public LeitorPNGSequencial(File origem) throws IOException {
+        this.arquivo = new DataInputStream(new BufferedInputStream(new FileInputStream(origem), 1 << 16));
+        try {
+            lerCabecalho();
+        } catch (IOException | RuntimeException e) {
+            arquivo.close();
+            throw e;
+        }
+    }
+
+    public int getLargura() {
+        return largura;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    // Decodifica a próxima linha em destino[deslocamento .. deslocamento + largura), em ARGB
+    public void lerLinha(int[] destino, int deslocamento) throws IOException {
+        if (linhasLidas >= altura) {
+            throw new IOException("Todas as linhas do PNG já foram lidas");
+        }
+
+        int filtro = dados.readUnsignedByte();
+        dados.readFully(linhaAtual);
+        desfazerFiltro(filtro);
+        converterLinha(destino, deslocamento);
+
+        byte[] troca = linhaAnterior;
+        linhaAnterior = linhaAtual;
+        linhaAtual = troca;
+        linhasLidas++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        arquivo.close();
+    }
+
+    // Lê os chunks até o primeiro IDAT: IHDR, paleta e transparência
+    private void lerCabecalho() throws IOException {
+        if (arquivo.readLong() != ASSINATURA) {
+            throw new IOException("Arquivo não é um PNG");
+        }
+
+        boolean temCabecalho = false;
+        byte[] transparencia = null;
+
+        while (true) {
+            int tamanho = arquivo.readInt();
+            int tipo = arquivo.readInt();
+
+            if (tipo == IDAT) {
+                if (!temCabecalho) {
+                    throw new IOException("PNG sem IHDR");
+                }
+                if (tipoCor == 3 && paleta == null) {
+                    throw new IOException("PNG com paleta sem PLTE");
+                }
+                restanteIdat = tamanho;
+                break;
+            }
+
+            byte[] conteudo = new byte[tamanho];
+            arquivo.readFully(conteudo);
+            arquivo.readInt(); // CRC
+
+            if (tipo == IHDR) {
+                lerIHDR(conteudo);
+                temCabecalho = true;
+            } else if (tipo == PLTE) {
+                paleta = new int[tamanho / 3];
+                for (int i = 0; i < paleta.length; i++) {
+                    paleta[i] = 0xFF000000 | (conteudo[3 * i] & 0xFF) << 16
+                            | (conteudo[3 * i + 1] & 0xFF) << 8 | (conteudo[3 * i + 2] & 0xFF);
+                }
+            } else if (tipo == TRNS) {
+                transparencia = conteudo;
+            }
+        }
+
+        if (paleta != null && transparencia != null && tipoCor == 3) {
+            for (int i = 0; i < Math.min(paleta.length, transparencia.length); i++) {
+                paleta[i] = (paleta[i] & 0x00FFFFFF) | (transparencia[i] & 0xFF) << 24;
+            }
+        }
+
+        dados = new DataInputStream(new InflaterInputStream(new DadosIdat(), new Inflater(), 1 << 16));
+        linhaAtual = new byte[bytesPorLinha];
+        linhaAnterior = new byte[bytesPorLinha];
+    }
+
+    private void lerIHDR(byte[] conteudo) throws IOException {
+        java.nio.ByteBuffer ihdr = java.nio.ByteBuffer.wrap(conteudo);
+        largura = ihdr.getInt();
+        altura = ihdr.getInt();
+        profundidade = ihdr.get() & 0xFF;
+        tipoCor = ihdr.get() & 0xFF;
+        ihdr.get(); // compressão
+        ihdr.get(); // filtro
+        int entrelacamento = ihdr.get() & 0xFF;
+
+        if (largura <= 0 || altura <= 0) {
+            throw new IOException("Dimensões inválidas no PNG: " + largura + "x" + altura);
+        }
+        if (entrelacamento != 0) {
+            throw new IOException("PNG entrelaçado não pode ser lido em uma só passada");
+        }
+
+        switch (tipoCor) {
+            case 0: amostrasPorPixel = 1; break;
+            case 2: amostrasPorPixel = 3; break;
+            case 3: amostrasPorPixel = 1; break;
+            case 4: amostrasPorPixel = 2; break;
+            case 6: amostrasPorPixel = 4; break;
+            default: throw new IOException("Tipo de cor PNG desconhecido: " + tipoCor);
+        }
+        boolean profundidadeValida = tipoCor == 3 ? profundidade <= 8 : (tipoCor == 0 || profundidade >= 8);
+        if (Integer.bitCount(profundidade) != 1 || profundidade > 16 || !profundidadeValida) {
+            throw new IOException("Profundidade PNG inválida: " + profundidade + " bits no tipo " + tipoCor);
+        }
+
+        long bitsPorLinha = (long) largura * amostrasPorPixel * profundidade;
+        if ((bitsPorLinha + 7) / 8 > Integer.MAX_VALUE - 8) {
+            throw new IOException("Linha do PNG grande demais: " + largura + " pixels");
+        }
+        bytesPorLinha = (int) ((bitsPorLinha + 7) / 8);
+        bytesPorPixel = Math.max(1, amostrasPorPixel * profundidade / 8);
+    }
+
+    // Filtros do PNG: 0 nenhum, 1 Sub, 2 Up, 3 Average, 4 Paeth
+    private void desfazerFiltro(int filtro) throws IOException {
+        byte[] linha = linhaAtual;
+        byte[] anterior = linhaAnterior;
+        int bpp = bytesPorPixel;
+
+        switch (filtro) {
+            case 0:
+                break;
+            case 1:
+                for (int i = bpp; i < linha.length; i++) {
+                    linha[i] += linha[i - bpp];
+                }
+                break;
+            case 2:
+                for (int i = 0; i < linha.length; i++) {
+                    linha[i] += anterior[i];
+                }
+                break;
+            case 3:
+                for (int i = 0; i < linha.length; i++) {
+                    int esquerda = i >= bpp ? linha[i - bpp] & 0xFF : 0;
+                    linha[i] += (byte) ((esquerda + (anterior[i] & 0xFF)) >>> 1);
+                }
+                break;
+            case 4:
+                for (int i = 0; i < linha.length; i++) {
+                    int a = i >= bpp ? linha[i - bpp] & 0xFF : 0;
+                    int b = anterior[i] & 0xFF;
+                    int c = i >= bpp ? anterior[i - bpp] & 0xFF : 0;
+                    int p = a + b - c;
+                    int pa = Math.abs(p - a);
+                    int pb = Math.abs(p - b);
+                    int pc = Math.abs(p - c);
+                    linha[i] += (byte) (pa <= pb && pa <= pc ? a : pb <= pc ? b : c);
+                }
+                break;
+            default:
+                throw new IOException("Filtro PNG inválido na linha " + linhasLidas + ": " + filtro);
+        }
+    }
+
+    private void converterLinha(int[] destino, int deslocamento) throws IOException {
+        byte[] linha = linhaAtual;
+
+        if (profundidade < 8) {
+            int mascara = (1 << profundidade) - 1;
+            for (int x = 0; x < largura; x++) {
+                int bit = x * profundidade;
+                int valor = (linha[bit >>> 3] >>> (8 - profundidade - (bit & 7))) & mascara;
+                destino[deslocamento + x] = tipoCor == 3 ? corDaPaleta(valor) : cinza(valor * 255 / mascara, 0xFF);
+            }
+            return;
+        }
+
+        // Passo entre amostras: 1 byte (8 bits) ou 2 bytes, lendo o mais significativo (16 bits)
+        int passo = profundidade / 8;
+        int i = 0;
+        for (int x = 0; x < largura; x++) {
+            int cor;
+            switch (tipoCor) {
+                case 0:
+                    cor = cinza(linha[i] & 0xFF, 0xFF);
+                    break;
+                case 2:
+                    cor = 0xFF000000 | (linha[i] & 0xFF) << 16 | (linha[i + passo] & 0xFF) << 8
+                            | (linha[i + 2 * passo] & 0xFF);
+                    break;
+                case 3:
+                    cor = corDaPaleta(linha[i] & 0xFF);
+                    break;
+                case 4:
+                    cor = cinza(linha[i] & 0xFF, linha[i + passo] & 0xFF);
+                    break;
+                default:
+                    cor = (linha[i + 3 * passo] & 0xFF) << 24 | (linha[i] & 0xFF) << 16
+                            | (linha[i + passo] & 0xFF) << 8 | (linha[i + 2 * passo] & 0xFF);
+            }
+            destino[deslocamento + x] = cor;
+            i += amostrasPorPixel * passo;
+        }
+    }
+
+    private int corDaPaleta(int indice) throws IOException {
+        if (indice >= paleta.length) {
+            throw new IOException("Índice de paleta fora da PLTE: " + indice);
+        }
+        return paleta[indice];
+    }
+
+    private static int cinza(int nivel, int alfa) {
+        return alfa << 24 | nivel << 16 | nivel << 8 | nivel;
+    }
+
+    // Conteúdo dos IDAT consecutivos como um único fluxo, pulando tamanho, tipo e CRC entre eles
+    private class DadosIdat extends InputStream {
+        @Override
+        public int read() throws IOException {
+            byte[] um = new byte[1];
+            return read(um, 0, 1) < 0 ? -1 : um[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int quantidade) throws IOException {
+            while (restanteIdat == 0) {
+                arquivo.readInt(); // CRC do IDAT anterior
+                int tamanho = arquivo.readInt();
+                if (arquivo.readInt() != IDAT) {
+                    restanteIdat = -1;
+                    break;
+                }
+                restanteIdat = tamanho;
+            }
+            if (restanteIdat < 0) {
+                return -1;
+            }
+
+            int lidos = arquivo.read(destino, inicio, Math.min(quantidade, restanteIdat));
+            if (lidos < 0) {
+                throw new EOFException("PNG truncado dentro de um IDAT");
+            }
+            restanteIdat -= lidos;
+            return lidos;
+        }
+    }
+}
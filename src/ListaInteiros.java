@@ -0,0 +1,53 @@
+import java.util.Arrays;
+
+// Lista crescente de int primitivos, usada para guardar trechos (y, xInicio, xFim) sem alocar objetos
+class ListaInteiros {
+    private int[] elementos;
+    private int tamanho;
+
+    public ListaInteiros() {
+        this(16);
+    }
+
+    public ListaInteiros(int capacidadeInicial) {
+        this.elementos = new int[Math.max(1, capacidadeInicial)];
+        this.tamanho = 0;
+    }
+
+    public void adicionar(int valor) {
+        if (tamanho == elementos.length) {
+            elementos = Arrays.copyOf(elementos, elementos.length * 2);
+        }
+        elementos[tamanho++] = valor;
+    }
+
+    public void adicionar(int a, int b, int c) {
+        adicionar(a);
+        adicionar(b);
+        adicionar(c);
+    }
+
+    public int obter(int indice) {
+        return elementos[indice];
+    }
+
+    public int removerUltimo() {
+        return elementos[--tamanho];
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public boolean estaVazia() {
+        return tamanho == 0;
+    }
+
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public int[] paraArray() {
+        return Arrays.copyOf(elementos, tamanho);
+    }
+}
@@ -1,7 +1,25 @@
+import java.io.IOException;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
+    private static final int FORMATO_PNG_POR_PIXEL = 1;
+    private static final int FORMATO_PNG_EM_SEGUNDO_PLANO = 2;
+    private static final int FORMATO_TRILHA_BINARIA = 3;
+    private static final int FORMATO_GIF_ANIMADO = 4;
+
+    // Configuração da gravação em segundo plano
+    private static final int FRAMES_A_CADA_PIXELS = 50;
+    private static final int CAPACIDADE_FILA_FRAMES = 64;
+
     public static void main(String[] args) {
+        // Modo em lote: sem Scanner e sem Swing, para rodar em servidores sem tela
+        if (args.length > 0 && args[0].equals("--lote")) {
+            System.setProperty("java.awt.headless", "true");
+            ProcessamentoLote.executar(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         System.out.println("TDE01 - FLOOD FILL");
         System.out.println("==========================================");
         System.out.println();
@@ -21,11 +39,11 @@ public class Main {
                 executarInterfaceGrafica();
                 break;
             case 2:
-                executarExemploAutomatico();
+                executarExemploAutomatico(escolherFormatoAnimacao(scanner));
                 break;
             default:
                 System.out.println("Opção inválida. Executando exemplo automático...");
-                executarExemploAutomatico();
+                executarExemploAutomatico(FORMATO_PNG_POR_PIXEL);
         }
 
         scanner.close();
@@ -44,20 +62,80 @@ public class Main {
         });
     }
 
+    private static int escolherFormatoAnimacao(Scanner scanner) {
+        System.out.println("\nEscolha o formato da animação:");
+        System.out.println("1 - Um PNG por pixel pintado (gravação síncrona)");
+        System.out.println("2 - PNG a cada " + FRAMES_A_CADA_PIXELS + " pixels, codificado em segundo plano");
+        System.out.println("3 - Trilha binária da ordem de pintura (frames reproduzidos sob demanda)");
+        System.out.println("4 - GIF animado único a cada " + FRAMES_A_CADA_PIXELS + " pixels (apenas a área alterada por frame)");
+        System.out.print("Opção: ");
+
+        int formato = scanner.nextInt();
+        scanner.nextLine();
+
+        if (formato < FORMATO_PNG_POR_PIXEL || formato > FORMATO_GIF_ANIMADO) {
+            System.out.println("Formato inválido. Usando um PNG por pixel...");
+            return FORMATO_PNG_POR_PIXEL;
+        }
+        return formato;
+    }
+
+    // null mantém o comportamento original do FloodFillAlgoritmo (um PNG síncrono por pixel)
+    private static SaidaAnimacao criarSaidaAnimacao(int formato, ProcessadorImagem processador, String tipo, String caminhoOriginal) {
+        if (formato == FORMATO_PNG_EM_SEGUNDO_PLANO) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            return new GravadorFrames(processador, tipo, FRAMES_A_CADA_PIXELS, 0, CAPACIDADE_FILA_FRAMES, threads);
+        }
+        if (formato == FORMATO_TRILHA_BINARIA) {
+            return new GravadorTrilha(processador, tipo, caminhoOriginal);
+        }
+        if (formato == FORMATO_GIF_ANIMADO) {
+            return new GravadorGifAnimado(processador, tipo, FRAMES_A_CADA_PIXELS);
+        }
+        return null;
+    }
+
+    // Reconstrói alguns frames de cada trilha para mostrar a reprodução sob demanda
+    private static void reproduzirAmostrasDasTrilhas(ProcessadorImagem... processadores) {
+        System.out.println("\n=== REPRODUÇÃO DAS TRILHAS ===");
+
+        for (ProcessadorImagem processador : processadores) {
+            String diretorio = processador.getDiretorioSaida();
+            String tipo = diretorio.substring(diretorio.lastIndexOf('/') + 1);
+
+            try {
+                ReprodutorTrilha reprodutor = new ReprodutorTrilha(diretorio + "/trilha_" + tipo + ".fft");
+                int total = reprodutor.getTotalFrames();
+
+                for (int parte = 1; parte <= 4; parte++) {
+                    int frame = total * parte / 4;
+                    processador.salvarImagemAnimacao(reprodutor.renderizarFrame(frame), frame, tipo + "_reproduzido");
+                }
+                System.out.println("✓ " + tipo + ": " + total + " frames na trilha, 4 amostras reproduzidas");
+            } catch (java.io.IOException e) {
+                System.err.println("✗ ERRO ao reproduzir trilha " + tipo + ": " + e.getMessage());
+            }
+        }
+    }
+
     /* MODO 2: Exemplo automático carregando input/input.png */
-    private static void executarExemploAutomatico() {
+    private static void executarExemploAutomatico(int formatoAnimacao) {
         System.out.println("\n=== MODO 2: EXEMPLO AUTOMÁTICO COM IMAGEM ===");
         System.out.println("Executando demonstração completa com input/input.png...");
 
         ProcessadorImagem processador = new ProcessadorImagem("flood_fill_example_output");
 
+        long inicioCarregamento = System.nanoTime();
         int[][] matriz = carregarImagemInput(processador);
+        long nanosCarregamento = System.nanoTime() - inicioCarregamento;
 
+        long inicioBusca = System.nanoTime();
         int[] ponto = processador.encontrarPixelBrancoEmAreaFechada(matriz);
+        long nanosBusca = System.nanoTime() - inicioBusca;
 
         System.out.println("Ponto escolhido para demonstração: (" + ponto[0] + ", " + ponto[1] + ")");
 
-        executarFloodFillCompleto(matriz, ponto[0], ponto[1], processador);
+        executarFloodFillCompleto(matriz, ponto[0], ponto[1], processador, formatoAnimacao, nanosCarregamento, nanosBusca);
     }
 
     private static int[][] carregarImagemInput(ProcessadorImagem processador) {
@@ -80,47 +158,109 @@ public class Main {
         return matriz;
     }
 
-    private static void executarFloodFillCompleto(int[][] matrizOriginal, int x, int y, ProcessadorImagem processador) {
+    private static void executarFloodFillCompleto(int[][] matrizOriginal, int x, int y, ProcessadorImagem processador, int formatoAnimacao,
+                                                  long nanosCarregamento, long nanosBusca) {
         System.out.println("\n=== EXECUTANDO FLOOD FILL COM ESTRUTURAS PRÓPRIAS ===");
         System.out.println("Ponto inicial: (" + x + ", " + y + ")");
 
-        int[][] matrizPilha = copiarMatriz(matrizOriginal);
-        int[][] matrizFila = copiarMatriz(matrizOriginal);
+        // As três execuções leem a mesma imagem; cada uma só copia os ladrilhos em que pinta
+        MatrizPixel base = new MatrizPixelArray(matrizOriginal);
+        RasterCopiaEscrita matrizPilha = new RasterCopiaEscrita(base);
+        RasterCopiaEscrita matrizFila = new RasterCopiaEscrita(base);
+        RasterCopiaEscrita matrizScanline = new RasterCopiaEscrita(base);
 
         // Cria processadores específicos para cada estrutura
         ProcessadorImagem processadorPilha = new ProcessadorImagem(processador.getDiretorioSaida() + "/pilha");
         ProcessadorImagem processadorFila = new ProcessadorImagem(processador.getDiretorioSaida() + "/fila");
+        ProcessadorImagem processadorScanline = new ProcessadorImagem(processador.getDiretorioSaida() + "/scanline");
 
         processador.salvarImagemFinal(matrizOriginal, "original");
+        String caminhoOriginal = processador.getDiretorioSaida() + "/resultado_final_original.png";
 
         System.out.println("\n--- EXECUTANDO COM PILHA (DFS) ---");
         FloodFillAlgoritmo algoritmoPilha = new FloodFillAlgoritmo(matrizPilha, processadorPilha);
+        SaidaAnimacao saidaPilha = criarSaidaAnimacao(formatoAnimacao, processadorPilha, "Pilha", caminhoOriginal);
+        algoritmoPilha.setSaidaAnimacao(saidaPilha);
 
-        long inicioPilha = System.currentTimeMillis();
         algoritmoPilha.preencherComPilha(x, y, GerenciarCores.obterCorVermelha());
-        long fimPilha = System.currentTimeMillis();
 
         System.out.println("\n--- EXECUTANDO COM FILA (BFS) ---");
         FloodFillAlgoritmo algoritmoFila = new FloodFillAlgoritmo(matrizFila, processadorFila);
+        SaidaAnimacao saidaFila = criarSaidaAnimacao(formatoAnimacao, processadorFila, "Fila", caminhoOriginal);
+        algoritmoFila.setSaidaAnimacao(saidaFila);
 
-        long inicioFila = System.currentTimeMillis();
         algoritmoFila.preencherComFila(x, y, GerenciarCores.obterCorVerde());
-        long fimFila = System.currentTimeMillis();
+
+        System.out.println("\n--- EXECUTANDO COM SCANLINE (TRECHOS) ---");
+        FloodFillAlgoritmo algoritmoScanline = new FloodFillAlgoritmo(matrizScanline, processadorScanline);
+        SaidaAnimacao saidaScanline = criarSaidaAnimacao(formatoAnimacao, processadorScanline, "Scanline", caminhoOriginal);
+        algoritmoScanline.setSaidaAnimacao(saidaScanline);
+
+        algoritmoScanline.preencherComScanline(x, y, GerenciarCores.obterCorAzul());
+
+        if (formatoAnimacao == FORMATO_TRILHA_BINARIA) {
+            reproduzirAmostrasDasTrilhas(processadorPilha, processadorFila, processadorScanline);
+        }
 
         // Relatório final comparativo
-        gerarRelatorioFinalCompleto(algoritmoPilha, algoritmoFila, fimPilha - inicioPilha, fimFila - inicioFila);
+        gerarRelatorioFinalCompleto(algoritmoPilha, algoritmoFila, algoritmoScanline);
+        imprimirArquivosGerados(caminhoOriginal, formatoAnimacao,
+                new String[]{"Pilha", "Fila", "Scanline"},
+                new ProcessadorImagem[]{processadorPilha, processadorFila, processadorScanline},
+                new SaidaAnimacao[]{saidaPilha, saidaFila, saidaScanline});
+        imprimirLadrilhosCopiados(matrizPilha, matrizFila, matrizScanline);
+
+        salvarMetricas(processador, nanosCarregamento, nanosBusca,
+                algoritmoPilha.getMetricas(), algoritmoFila.getMetricas(), algoritmoScanline.getMetricas());
+    }
+
+    private static long milissegundos(FloodFillAlgoritmo algoritmo, FloodFillMetricas.Fase fase) {
+        return algoritmo.getMetricas().getNanos(fase) / 1_000_000;
     }
 
-    private static void gerarRelatorioFinalCompleto(FloodFillAlgoritmo pilha, FloodFillAlgoritmo fila, long tempoPilha, long tempoFila) {
+    private static void imprimirLadrilhosCopiados(RasterCopiaEscrita pilha, RasterCopiaEscrita fila, RasterCopiaEscrita scanline) {
+        System.out.println("\nMEMÓRIA (CÓPIA NA ESCRITA):");
+        System.out.println("- Ladrilhos copiados: Pilha " + pilha.getLadrilhosCopiados() + ", Fila " + fila.getLadrilhosCopiados()
+                + ", Scanline " + scanline.getLadrilhosCopiados() + " de " + pilha.getTotalLadrilhos());
+        System.out.println("- Bytes copiados: Pilha " + pilha.getBytesCopiados() + ", Fila " + fila.getBytesCopiados()
+                + ", Scanline " + scanline.getBytesCopiados());
+    }
+
+    // Carregamento e busca do ponto inicial são compartilhados pelas três execuções
+    private static void salvarMetricas(ProcessadorImagem processador, long nanosCarregamento, long nanosBusca,
+                                       FloodFillMetricas... execucoes) {
+        for (FloodFillMetricas metricas : execucoes) {
+            metricas.registrarTempo(FloodFillMetricas.Fase.CARREGAMENTO, nanosCarregamento);
+            metricas.registrarTempo(FloodFillMetricas.Fase.BUSCA_SEMENTE, nanosBusca);
+        }
+
+        String base = processador.getDiretorioSaida() + "/metricas";
+        try {
+            FloodFillMetricas.salvar(List.of(execucoes), base + ".json", base + ".csv");
+            System.out.println("✓ Métricas salvas: " + base + ".json e " + base + ".csv");
+        } catch (IOException e) {
+            System.err.println("✗ ERRO ao salvar métricas: " + e.getMessage());
+        }
+    }
+
+    private static void gerarRelatorioFinalCompleto(FloodFillAlgoritmo pilha, FloodFillAlgoritmo fila, FloodFillAlgoritmo scanline) {
+        long tempoPilha = milissegundos(pilha, FloodFillMetricas.Fase.PREENCHIMENTO);
+        long tempoFila = milissegundos(fila, FloodFillMetricas.Fase.PREENCHIMENTO);
+
         System.out.println("\n=== RELATÓRIO FINAL COMPLETO ===");
-        System.out.println("PERFORMANCE:");
-        System.out.println("- Tempo Pilha (DFS): " + tempoPilha + "ms");
-        System.out.println("- Tempo Fila (BFS): " + tempoFila + "ms");
+        System.out.println("PERFORMANCE (preenchimento, sem os frames):");
+        System.out.println("- Tempo Pilha (DFS): " + tempoPilha + "ms + " + milissegundos(pilha, FloodFillMetricas.Fase.FRAMES) + "ms de frames");
+        System.out.println("- Tempo Fila (BFS): " + tempoFila + "ms + " + milissegundos(fila, FloodFillMetricas.Fase.FRAMES) + "ms de frames");
         System.out.println("- Diferença: " + Math.abs(tempoPilha - tempoFila) + "ms");
+        System.out.println("- Tempo Scanline: " + milissegundos(scanline, FloodFillMetricas.Fase.PREENCHIMENTO) + "ms + "
+                + milissegundos(scanline, FloodFillMetricas.Fase.FRAMES) + "ms de frames");
 
         System.out.println("\nESTATÍSTICAS:");
         System.out.println("- Resultado Pilha: " + pilha.obterInformacoesMatriz());
         System.out.println("- Resultado Fila: " + fila.obterInformacoesMatriz());
+        System.out.println("- Resultado Scanline: " + scanline.obterInformacoesMatriz());
+        System.out.println("- Pico da estrutura: Pilha " + pilha.getPicoEstrutura() + ", Fila " + fila.getPicoEstrutura()
+                + ", Scanline " + scanline.getPicoEstrutura());
 
         System.out.println("\nDIFERENÇAS ESTRUTURAIS DEMONSTRADAS:");
         System.out.println(" PILHA (DFS): Explora em profundidade, padrão mais irregular");
@@ -129,13 +269,39 @@ public class Main {
         System.out.println(" FILA (BFS): Explora em largura, padrão mais uniforme/circular");
         System.out.println("  - Primeiros vizinhos adicionados são processados primeiro");
         System.out.println("  - Cria padrões de preenchimento mais 'concêntricos'");
+        System.out.println(" SCANLINE: Preenche trechos horizontais inteiros");
+        System.out.println("  - Apenas uma semente por trecho vizinho entra na pilha");
+    }
 
-        System.out.println("\nARQUIVOS GERADOS (FORMATO PNG OBRIGATÓRIO):");
-        System.out.println(" Imagem original salva");
-        System.out.println(" Resultado Pilha (vermelho) com animação completa");
-        System.out.println(" Resultado Fila (verde) com animação completa");
-        System.out.println(" Frames de animação PNG para cada pixel modificado");
-
+    // Lista o que cada formato de animação de fato gravou, na ordem de tipos/processadores/saídas
+    private static void imprimirArquivosGerados(String caminhoOriginal, int formatoAnimacao, String[] tipos,
+                                                ProcessadorImagem[] processadores, SaidaAnimacao[] saidas) {
+        System.out.println("\nARQUIVOS GERADOS:");
+        System.out.println(" Imagem original: " + caminhoOriginal);
+
+        for (int i = 0; i < tipos.length; i++) {
+            String tipo = tipos[i];
+            String diretorio = processadores[i].getDiretorioSaida();
+            System.out.println(" " + tipo + ": " + diretorio + "/resultado_final_" + tipo.toLowerCase() + ".png");
+
+            SaidaAnimacao saida = saidas[i];
+            if (saida instanceof GravadorFrames) {
+                GravadorFrames frames = (GravadorFrames) saida;
+                System.out.println("  - " + frames.getFramesEnfileirados() + " PNGs em " + diretorio + ", um a cada "
+                        + FRAMES_A_CADA_PIXELS + " pixels (" + frames.getFramesDescartados() + " descartados com a fila cheia)");
+            } else if (saida instanceof GravadorTrilha) {
+                System.out.println("  - Trilha binária: " + ((GravadorTrilha) saida).getCaminhoTrilha()
+                        + " e 4 frames reproduzidos a partir dela");
+            } else if (saida instanceof GravadorGifAnimado) {
+                GravadorGifAnimado gif = (GravadorGifAnimado) saida;
+                System.out.println("  - GIF animado: " + gif.getCaminhoGif() + " (" + gif.getFramesGravados()
+                        + " frames, um a cada " + FRAMES_A_CADA_PIXELS + " pixels)");
+            } else if (formatoAnimacao == FORMATO_PNG_POR_PIXEL) {
+                String unidade = tipo.equals("Scanline") ? "trecho pintado" : "pixel pintado";
+                System.out.println("  - Um PNG por " + unidade + " em " + diretorio + "/animacao_"
+                        + tipo.toLowerCase() + "_frame_*.png");
+            }
+        }
     }
 
     /* Cria matriz exemplo otimizada conforme requisitos (fallback) */
@@ -184,16 +350,4 @@ public class Main {
         System.out.println("Matriz exemplo criada: " + tamanho + "x" + tamanho);
         return matriz;
     }
-
-    private static int[][] copiarMatriz(int[][] original) {
-        int altura = original.length;
-        int largura = original[0].length;
-        int[][] copia = new int[altura][largura];
-
-        for (int i = 0; i < altura; i++) {
-            System.arraycopy(original[i], 0, copia[i], 0, largura);
-        }
-
-        return copia;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+// Máscara de pixels semelhantes à cor de referência, calculada linha a linha sob demanda.
+// O laço de cada linha não tem desvios, para que o JIT possa vetorizá-lo.
+class MascaraTolerancia {
+    private MatrizPixel matriz;
+    private int largura;
+    private int vermelhoReferencia;
+    private int verdeReferencia;
+    private int azulReferencia;
+    private int tolerancia;
+    private ModoTolerancia modo;
+    private byte[][] linhas;
+    private int[] bufferLinha;
+
+    public MascaraTolerancia(MatrizPixel matriz, int corReferencia, int tolerancia, ModoTolerancia modo) {
+        this.matriz = matriz;
+        this.largura = matriz.getLargura();
+        this.vermelhoReferencia = (corReferencia >> 16) & 0xFF;
+        this.verdeReferencia = (corReferencia >> 8) & 0xFF;
+        this.azulReferencia = corReferencia & 0xFF;
+        this.tolerancia = tolerancia;
+        this.modo = modo;
+        this.linhas = new byte[matriz.getAltura()][];
+        this.bufferLinha = new int[largura];
+    }
+
+    public boolean corresponde(int x, int y) {
+        return obterLinha(y)[x] != 0;
+    }
+
+    // Pixels já pintados deixam de corresponder, mesmo que a nova cor esteja dentro da tolerância
+    public void desmarcarTrecho(int y, int xInicio, int xFim) {
+        java.util.Arrays.fill(obterLinha(y), xInicio, xFim + 1, (byte) 0);
+    }
+
+    private byte[] obterLinha(int y) {
+        byte[] linha = linhas[y];
+        if (linha == null) {
+            linha = new byte[largura];
+            matriz.copiarLinha(y, bufferLinha, 0);
+
+            if (modo == ModoTolerancia.POR_CANAL) {
+                calcularPorCanal(bufferLinha, linha);
+            } else {
+                calcularEuclidiana(bufferLinha, linha);
+            }
+            linhas[y] = linha;
+        }
+        return linha;
+    }
+
+    private void calcularPorCanal(int[] cores, byte[] mascara) {
+        for (int i = 0; i < largura; i++) {
+            int cor = cores[i];
+            int dr = Math.abs(((cor >> 16) & 0xFF) - vermelhoReferencia);
+            int dg = Math.abs(((cor >> 8) & 0xFF) - verdeReferencia);
+            int db = Math.abs((cor & 0xFF) - azulReferencia);
+
+            // Negativo se algum canal passou da tolerância
+            int folga = (tolerancia - dr) | (tolerancia - dg) | (tolerancia - db);
+            mascara[i] = (byte) (~folga >>> 31);
+        }
+    }
+
+    private void calcularEuclidiana(int[] cores, byte[] mascara) {
+        int toleranciaQuadrada = tolerancia * tolerancia;
+
+        for (int i = 0; i < largura; i++) {
+            int cor = cores[i];
+            int dr = ((cor >> 16) & 0xFF) - vermelhoReferencia;
+            int dg = ((cor >> 8) & 0xFF) - verdeReferencia;
+            int db = (cor & 0xFF) - azulReferencia;
+
+            int folga = toleranciaQuadrada - (dr * dr + dg * dg + db * db);
+            mascara[i] = (byte) (~folga >>> 31);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.awt.image.BufferedImage;
+
+// Interface para as representações da imagem usadas pelos algoritmos de preenchimento
+interface MatrizPixel {
+    int getLargura();
+    int getAltura();
+    int obterCor(int x, int y);
+    void definirCor(int x, int y, int cor);
+
+    // Pinta o trecho horizontal [xInicio, xFim] da linha y
+    default void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        for (int x = xInicio; x <= xFim; x++) {
+            definirCor(x, y, cor);
+        }
+    }
+
+    // Copia a linha y para destino[deslocamento .. deslocamento + largura)
+    default void copiarLinha(int y, int[] destino, int deslocamento) {
+        for (int x = 0; x < getLargura(); x++) {
+            destino[deslocamento + x] = obterCor(x, y);
+        }
+    }
+
+    // Converte para uma BufferedImage ARGB copiando linha a linha para o DataBufferInt
+    default BufferedImage paraBufferedImage() {
+        BufferedImage imagem = imagemSemCopia();
+        if (imagem != null) {
+            return imagem;
+        }
+
+        int largura = getLargura();
+        int altura = getAltura();
+        imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        int[] dados = ((java.awt.image.DataBufferInt) imagem.getRaster().getDataBuffer()).getData();
+
+        for (int y = 0; y < altura; y++) {
+            copiarLinha(y, dados, y * largura);
+        }
+
+        return imagem;
+    }
+
+    // Imagem que compartilha o armazenamento desta matriz, ou null se não houver
+    default BufferedImage imagemSemCopia() {
+        return null;
+    }
+
+    default int[][] paraMatriz() {
+        int[][] matriz = new int[getAltura()][getLargura()];
+
+        for (int y = 0; y < matriz.length; y++) {
+            for (int x = 0; x < matriz[y].length; x++) {
+                matriz[y][x] = obterCor(x, y);
+            }
+        }
+
+        return matriz;
+    }
+}
@@ -0,0 +1,46 @@
+// Adaptador da matriz int[][] original: as alterações aparecem diretamente na matriz envolvida
+class MatrizPixelArray implements MatrizPixel {
+    private int[][] matriz;
+    private int largura;
+    private int altura;
+
+    public MatrizPixelArray(int[][] matriz) {
+        this.matriz = matriz;
+        this.altura = matriz.length;
+        this.largura = matriz[0].length;
+    }
+
+    @Override
+    public int getLargura() {
+        return largura;
+    }
+
+    @Override
+    public int getAltura() {
+        return altura;
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        return matriz[y][x];
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        matriz[y][x] = cor;
+    }
+
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        java.util.Arrays.fill(matriz[y], xInicio, xFim + 1, cor);
+    }
+
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        System.arraycopy(matriz[y], 0, destino, deslocamento, largura);
+    }
+
+    public int[][] getMatriz() {
+        return matriz;
+    }
+}
@@ -0,0 +1,169 @@
+// Decorador que repassa as escritas para a matriz envolvida e anota, em trechos, as cores que
+// cada pixel tinha antes. Escritas seguidas na mesma linha com as mesmas cores viram um só trecho.
+class MatrizPixelGravada implements MatrizPixel {
+    private final MatrizPixel matriz;
+    private ListaInteiros trechos = new ListaInteiros();
+
+    public MatrizPixelGravada(MatrizPixel matriz) {
+        this.matriz = matriz;
+    }
+
+    @Override
+    public int getLargura() {
+        return matriz.getLargura();
+    }
+
+    @Override
+    public int getAltura() {
+        return matriz.getAltura();
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        return matriz.obterCor(x, y);
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        int anterior = matriz.obterCor(x, y);
+        if (anterior != cor) {
+            anotar(y, x, x, anterior, cor);
+            matriz.definirCor(x, y, cor);
+        }
+    }
+
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        // Quebra o trecho onde a cor anterior muda; pixels que já tinham a cor nova não entram
+        int inicio = xInicio;
+        int anterior = matriz.obterCor(xInicio, y);
+        for (int x = xInicio + 1; x <= xFim; x++) {
+            int atual = matriz.obterCor(x, y);
+            if (atual != anterior) {
+                if (anterior != cor) {
+                    anotar(y, inicio, x - 1, anterior, cor);
+                }
+                inicio = x;
+                anterior = atual;
+            }
+        }
+        if (anterior != cor) {
+            anotar(y, inicio, xFim, anterior, cor);
+        }
+
+        matriz.preencherTrecho(y, xInicio, xFim, cor);
+    }
+
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        matriz.copiarLinha(y, destino, deslocamento);
+    }
+
+    @Override
+    public java.awt.image.BufferedImage imagemSemCopia() {
+        return matriz.imagemSemCopia();
+    }
+
+    // Entrega as alterações gravadas desde a última chamada, ou null se não houve nenhuma
+    public EdicaoTrechos concluirEdicao() {
+        if (trechos.estaVazia()) {
+            return null;
+        }
+
+        EdicaoTrechos edicao = new EdicaoTrechos(compactar(trechos.paraArray()));
+        trechos = new ListaInteiros();
+        return edicao;
+    }
+
+    // Preenchimentos pixel a pixel (pilha, fila) escrevem fora de ordem e geram um trecho por pixel.
+    // Ordenando por linha e coluna, trechos vizinhos com as mesmas cores se juntam. Só vale se nenhum
+    // pixel foi escrito duas vezes; havendo sobreposição, a ordem original é mantida.
+    private int[] compactar(int[] gravados) {
+        int campos = EdicaoTrechos.CAMPOS_POR_TRECHO;
+        int quantidade = gravados.length / campos;
+        int altura = matriz.getAltura();
+
+        // Ordenação por contagem nas linhas, depois por coluna dentro de cada linha
+        int[] inicioLinha = new int[altura + 1];
+        for (int i = 0; i < gravados.length; i += campos) {
+            inicioLinha[gravados[i] + 1]++;
+        }
+        for (int y = 0; y < altura; y++) {
+            inicioLinha[y + 1] += inicioLinha[y];
+        }
+
+        long[] ordem = new long[quantidade];
+        int[] proximo = java.util.Arrays.copyOf(inicioLinha, altura);
+        for (int t = 0; t < quantidade; t++) {
+            int i = t * campos;
+            ordem[proximo[gravados[i]]++] = ((long) gravados[i + 1] << 32) | t;
+        }
+
+        ListaInteiros compactados = new ListaInteiros(gravados.length);
+        for (int y = 0; y < altura; y++) {
+            int primeiro = inicioLinha[y];
+            int ultimo = inicioLinha[y + 1];
+            if (primeiro == ultimo) {
+                continue;
+            }
+            java.util.Arrays.sort(ordem, primeiro, ultimo);
+
+            int fimAnterior = -1;
+            for (int k = primeiro; k < ultimo; k++) {
+                int i = (int) ordem[k] * campos;
+                int inicio = gravados[i + 1];
+                int fim = gravados[i + 2];
+
+                if (k > primeiro && inicio <= fimAnterior) {
+                    return gravados;
+                }
+
+                int n = compactados.tamanho();
+                if (k > primeiro
+                        && inicio == fimAnterior + 1
+                        && compactados.obter(n - 2) == gravados[i + 3]
+                        && compactados.obter(n - 1) == gravados[i + 4]) {
+                    compactados.removerUltimo();
+                    compactados.removerUltimo();
+                    compactados.removerUltimo();
+                    compactados.adicionar(fim, gravados[i + 3], gravados[i + 4]);
+                } else {
+                    compactados.adicionar(y, inicio, fim);
+                    compactados.adicionar(gravados[i + 3]);
+                    compactados.adicionar(gravados[i + 4]);
+                }
+                fimAnterior = fim;
+            }
+        }
+
+        return compactados.paraArray();
+    }
+
+    public void descartarEdicao() {
+        trechos.limpar();
+    }
+
+    public MatrizPixel getMatriz() {
+        return matriz;
+    }
+
+    private void anotar(int y, int xInicio, int xFim, int anterior, int cor) {
+        int n = trechos.tamanho();
+        if (n > 0
+                && trechos.obter(n - 5) == y
+                && trechos.obter(n - 3) == xInicio - 1
+                && trechos.obter(n - 2) == anterior
+                && trechos.obter(n - 1) == cor) {
+            // Estende o último trecho: remove e regrava com o novo fim
+            trechos.removerUltimo();
+            trechos.removerUltimo();
+            trechos.removerUltimo();
+            trechos.adicionar(xFim, anterior, cor);
+            return;
+        }
+
+        trechos.adicionar(y, xInicio, xFim);
+        trechos.adicionar(anterior);
+        trechos.adicionar(cor);
+    }
+}
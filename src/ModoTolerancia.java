@@ -0,0 +1,7 @@
+// Critério de semelhança de cor usado no preenchimento com tolerância
+enum ModoTolerancia {
+    // Cada canal R, G e B difere no máximo a tolerância
+    POR_CANAL,
+    // Distância euclidiana no espaço RGB no máximo igual à tolerância
+    EUCLIDIANA
+}
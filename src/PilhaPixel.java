@@ -10,6 +10,7 @@ class NoPilha {
 
 class PilhaPixel implements EstruturaPixel {
     private NoPilha topo;
+    private int tamanho;
 
     public PilhaPixel() {
         this.topo = null;
@@ -20,6 +21,7 @@ class PilhaPixel implements EstruturaPixel {
         NoPilha novoNo = new NoPilha(pixel);
         novoNo.proximo = topo;
         topo = novoNo;
+        tamanho++;
     }
 
     @Override
@@ -30,6 +32,7 @@ class PilhaPixel implements EstruturaPixel {
 
         Pixel pixel = topo.pixel;
         topo = topo.proximo;
+        tamanho--;
         return pixel;
     }
 
@@ -37,4 +40,9 @@ class PilhaPixel implements EstruturaPixel {
     public boolean estaVazia() {
         return topo == null;
     }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
 }
\ No newline at end of file
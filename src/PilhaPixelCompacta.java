@@ -0,0 +1,51 @@
+// Pilha sobre um vetor long[] crescente com coordenadas empacotadas (sem nós nem objetos Pixel)
+class PilhaPixelCompacta implements EstruturaPixel {
+    private static final int CAPACIDADE_INICIAL = 64;
+
+    private long[] elementos;
+    private int topo;
+
+    public PilhaPixelCompacta() {
+        this.elementos = new long[CAPACIDADE_INICIAL];
+        this.topo = 0;
+    }
+
+    @Override
+    public void adicionar(Pixel pixel) {
+        adicionar(pixel.getX(), pixel.getY());
+    }
+
+    @Override
+    public void adicionar(int x, int y) {
+        if (topo == elementos.length) {
+            elementos = java.util.Arrays.copyOf(elementos, elementos.length * 2);
+        }
+        elementos[topo++] = Pixel.empacotar(x, y);
+    }
+
+    @Override
+    public Pixel remover() {
+        if (estaVazia()) {
+            return null;
+        }
+
+        long empacotado = removerPacked();
+        return new Pixel(Pixel.desempacotarX(empacotado), Pixel.desempacotarY(empacotado));
+    }
+
+    // Deve ser chamado apenas com a pilha não vazia
+    @Override
+    public long removerPacked() {
+        return elementos[--topo];
+    }
+
+    @Override
+    public boolean estaVazia() {
+        return topo == 0;
+    }
+
+    @Override
+    public int tamanho() {
+        return topo;
+    }
+}
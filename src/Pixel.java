@@ -14,11 +14,17 @@ class Pixel {
     public int getY() {
         return y;
     }
-}
 
-// Interface para estruturas de dados
-interface EstruturaPixel {
-    void adicionar(Pixel pixel);
-    Pixel remover();
-    boolean estaVazia();
-}
\ No newline at end of file
+    // Empacota (x, y) em um único long: x nos 32 bits altos, y nos 32 bits baixos
+    public static long empacotar(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int desempacotarX(long empacotado) {
+        return (int) (empacotado >> 32);
+    }
+
+    public static int desempacotarY(long empacotado) {
+        return (int) empacotado;
+    }
+}
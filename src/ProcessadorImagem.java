@@ -1,10 +1,18 @@
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.stream.IntStream;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
 import javax.imageio.ImageIO;
 
 class ProcessadorImagem {
+    // Decodificação em bloco: faixas de linhas, divididas entre os núcleos em imagens grandes
+    private static final int LINHAS_POR_FAIXA = 64;
+    private static final int PIXELS_PARA_PARALELIZAR = 1 << 20;
+
     private String diretorioSaida;
+    private BufferedImage imagemReutilizavel;
 
     public ProcessadorImagem(String diretorioSaida) {
         this.diretorioSaida = diretorioSaida;
@@ -30,9 +38,23 @@ class ProcessadorImagem {
 
         if (arquivo.exists()) {
             System.out.println("✓ CARREGANDO IMAGEM PNG CONFORME REQUISITO: " + caminhoCompleto);
-            int[][] matriz = carregarImagem(caminhoCompleto);
 
-            if (validarImagemParaFloodFill(matriz)) {
+            // Raster já decodificado de uma execução anterior, se o PNG não mudou
+            CacheRaster cache = new CacheRaster(arquivo);
+            int[][] matriz = cache.carregar();
+
+            if (matriz != null) {
+                System.out.println("✓ Raster quantizado lido do cache: " + cache.getArquivoCache().getPath());
+            } else {
+                try {
+                    matriz = decodificarImagem(caminhoCompleto);
+                } catch (IOException | IllegalArgumentException e) {
+                    return exemploAposErro(e);
+                }
+                cache.salvar(matriz);
+            }
+
+            if (validarImagemParaFloodFill(cache.getHistograma())) {
                 System.out.println("✓ Imagem atende aos critérios ideais para Flood Fill");
                 return matriz;
             } else {
@@ -48,23 +70,15 @@ class ProcessadorImagem {
         return criarMatrizExemploConformeRequisitos();
     }
 
-    private boolean validarImagemParaFloodFill(int[][] matriz) {
-        int totalPixels = matriz.length * matriz[0].length;
-        int pixelsBrancos = 0;
-        int pixelsPretos = 0;
-        int outrasCore = 0;
-
-        for (int i = 0; i < matriz.length; i++) {
-            for (int j = 0; j < matriz[0].length; j++) {
-                if (matriz[i][j] == 0xFFFFFFFF) {
-                    pixelsBrancos++;
-                } else if (matriz[i][j] == 0xFF000000) {
-                    pixelsPretos++;
-                } else {
-                    outrasCore++;
-                }
-            }
+    // Usa o histograma das cores quantizadas (na ordem de CacheRaster.CORES) em vez de varrer a matriz
+    private boolean validarImagemParaFloodFill(long[] histograma) {
+        long pixelsBrancos = histograma[0];
+        long pixelsPretos = histograma[1];
+        long outrasCore = 0;
+        for (int i = 2; i < histograma.length; i++) {
+            outrasCore += histograma[i];
         }
+        long totalPixels = pixelsBrancos + pixelsPretos + outrasCore;
 
         double percentualBranco = (double) pixelsBrancos / totalPixels;
         double percentualOutras = (double) outrasCore / totalPixels;
@@ -88,62 +102,285 @@ class ProcessadorImagem {
 
     public int[][] carregarImagem(String caminhoArquivo) {
         try {
-            // Validação obrigatória de formato PNG
-            if (!validarFormatoPNG(caminhoArquivo)) {
-                throw new IllegalArgumentException("ERRO: Formato deve ser PNG conforme especificação do trabalho!");
-            }
+            return decodificarImagem(caminhoArquivo);
+
+        } catch (IOException | IllegalArgumentException e) {
+            return exemploAposErro(e);
+        }
+    }
 
-            System.out.println("Carregando imagem PNG: " + caminhoArquivo);
-            BufferedImage imagem = ImageIO.read(new File(caminhoArquivo));
+    // Como carregarImagem, mas sem a imagem de exemplo: falhas de leitura chegam a quem chamou
+    int[][] decodificarImagem(String caminhoArquivo) throws IOException {
+        BufferedImage imagem = lerPNG(caminhoArquivo);
 
-            if (imagem == null) {
-                throw new IOException("Não foi possível carregar a imagem PNG");
+        int largura = imagem.getWidth();
+        int altura = imagem.getHeight();
+        int[][] matriz = new int[altura][largura];
+
+        System.out.println("✓ Processando imagem PNG: " + largura + "x" + altura + " pixels");
+
+        // Converte para matriz preservando cores sólidas, uma faixa de linhas por vez
+        paraCadaFaixa(largura, altura, (yInicio, linhas) -> {
+            int[] faixa = new int[largura * linhas];
+            decodificarFaixa(imagem, yInicio, linhas, faixa, 0);
+            for (int i = 0; i < linhas; i++) {
+                System.arraycopy(faixa, i * largura, matriz[yInicio + i], 0, largura);
             }
+        });
+
+        System.out.println("✓ Imagem PNG carregada e processada com sucesso");
+        return matriz;
+    }
+
+    // Carrega a imagem em um RasterPixel que compartilha o buffer da BufferedImage decodificada
+    public RasterPixel carregarRaster(String caminhoArquivo) {
+        try {
+            BufferedImage imagem = lerPNG(caminhoArquivo);
 
             int largura = imagem.getWidth();
             int altura = imagem.getHeight();
-            int[][] matriz = new int[altura][largura];
 
             System.out.println("✓ Processando imagem PNG: " + largura + "x" + altura + " pixels");
 
-            // Converte para matriz preservando cores sólidas
-            for (int y = 0; y < altura; y++) {
-                for (int x = 0; x < largura; x++) {
-                    int rgb = imagem.getRGB(x, y);
-                    matriz[y][x] = processarPixelParaFloodFill(rgb);
+            RasterPixel raster;
+            if (imagem.getType() == BufferedImage.TYPE_INT_ARGB) {
+                // Quantiza no próprio buffer da imagem, sem matriz intermediária
+                raster = RasterPixel.envolver(imagem);
+                int[] dados = raster.getDados();
+                RasterPixel destino = raster;
+                paraCadaFaixa(largura, altura, (yInicio, linhas) -> {
+                    for (int y = yInicio; y < yInicio + linhas; y++) {
+                        int inicioLinha = destino.indice(0, y);
+                        for (int i = inicioLinha; i < inicioLinha + largura; i++) {
+                            dados[i] = processarPixelParaFloodFill(dados[i]);
+                        }
+                    }
+                });
+            } else {
+                // Outros formatos são decodificados direto no buffer do raster
+                raster = new RasterPixel(largura, altura);
+                int[] dados = raster.getDados();
+                paraCadaFaixa(largura, altura, (yInicio, linhas) ->
+                        decodificarFaixa(imagem, yInicio, linhas, dados, yInicio * largura));
+            }
+
+            System.out.println("✓ Imagem PNG carregada e processada com sucesso");
+            return raster;
+
+        } catch (IOException | IllegalArgumentException e) {
+            return RasterPixel.deMatriz(exemploAposErro(e));
+        }
+    }
+
+    // Carrega a imagem quantizada com um byte por pixel (índice na paleta de RasterPaleta)
+    public RasterPaleta carregarRasterPaleta(String caminhoArquivo) {
+        try {
+            BufferedImage imagem = lerPNG(caminhoArquivo);
+
+            int largura = imagem.getWidth();
+            int altura = imagem.getHeight();
+            RasterPaleta raster = new RasterPaleta(largura, altura);
+
+            System.out.println("✓ Processando imagem PNG em paleta: " + largura + "x" + altura + " pixels");
+
+            // Faixas em sequência: a paleta não é thread-safe (só cresce com cores fora da quantização)
+            int[] faixa = new int[largura * Math.min(LINHAS_POR_FAIXA, altura)];
+            for (int yInicio = 0; yInicio < altura; yInicio += LINHAS_POR_FAIXA) {
+                int linhas = Math.min(LINHAS_POR_FAIXA, altura - yInicio);
+                decodificarFaixa(imagem, yInicio, linhas, faixa, 0);
+                for (int i = 0; i < linhas; i++) {
+                    raster.gravarLinha(yInicio + i, faixa, i * largura);
                 }
             }
 
             System.out.println("✓ Imagem PNG carregada e processada com sucesso");
-            return matriz;
+            return raster;
 
-        } catch (IOException e) {
-            System.err.println("✗ ERRO ao carregar imagem PNG: " + e.getMessage());
-            System.out.println("Gerando matriz de exemplo que atende aos requisitos...");
-            return criarMatrizExemploConformeRequisitos();
-        } catch (IllegalArgumentException e) {
-            System.err.println("✗ " + e.getMessage());
-            System.out.println("Gerando matriz de exemplo PNG-equivalente...");
-            return criarMatrizExemploConformeRequisitos();
+        } catch (IOException | IllegalArgumentException e) {
+            return RasterPaleta.deMatriz(exemploAposErro(e));
+        }
+    }
+
+    // Carrega a imagem quantizada já codificada em trechos por linha, sem matriz int[][] intermediária
+    public RasterRLE carregarRasterRLE(String caminhoArquivo) {
+        try {
+            return decodificarRasterRLE(caminhoArquivo);
+
+        } catch (IOException | IllegalArgumentException e) {
+            return RasterRLE.deMatriz(exemploAposErro(e));
+        }
+    }
+
+    // Como carregarRasterRLE, mas sem a imagem de exemplo: falhas de leitura chegam a quem chamou
+    RasterRLE decodificarRasterRLE(String caminhoArquivo) throws IOException {
+        BufferedImage imagem = lerPNG(caminhoArquivo);
+
+        int largura = imagem.getWidth();
+        int altura = imagem.getHeight();
+        RasterRLE raster = new RasterRLE(largura, altura, GerenciarCores.obterCorBranca());
+
+        int[] faixa = new int[largura * Math.min(LINHAS_POR_FAIXA, altura)];
+        for (int yInicio = 0; yInicio < altura; yInicio += LINHAS_POR_FAIXA) {
+            int linhas = Math.min(LINHAS_POR_FAIXA, altura - yInicio);
+            decodificarFaixa(imagem, yInicio, linhas, faixa, 0);
+            for (int i = 0; i < linhas; i++) {
+                raster.gravarLinha(yInicio + i, faixa, i * largura);
+            }
         }
+
+        System.out.println("✓ Imagem PNG codificada em " + raster.getTotalTrechos() + " trechos: " + largura + "x" + altura + " pixels");
+        return raster;
+    }
+
+    // Decodifica o PNG em uma só passada direto para um raster em ladrilhos no arquivo caminhoMapeado,
+    // uma linha por vez: nem a imagem decodificada nem a matriz ficam inteiras no heap
+    public RasterMapeado carregarRasterMapeado(String caminhoArquivo, String caminhoMapeado) throws IOException {
+        exigirFormatoPNG(caminhoArquivo);
+
+        System.out.println("Carregando imagem PNG em ladrilhos mapeados: " + caminhoArquivo);
+
+        try (LeitorPNGSequencial leitor = new LeitorPNGSequencial(new File(caminhoArquivo))) {
+            int largura = leitor.getLargura();
+            int altura = leitor.getAltura();
+            RasterMapeado raster = new RasterMapeado(caminhoMapeado, largura, altura);
+
+            try {
+                int[] linha = new int[largura];
+                for (int y = 0; y < altura; y++) {
+                    leitor.lerLinha(linha, 0);
+                    for (int x = 0; x < largura; x++) {
+                        linha[x] = processarPixelParaFloodFill(linha[x]);
+                    }
+                    raster.gravarLinha(y, linha, 0);
+                }
+            } catch (IOException | RuntimeException e) {
+                raster.close();
+                throw e;
+            }
+
+            System.out.println("✓ Imagem PNG mapeada: " + largura + "x" + altura + " pixels em " + caminhoMapeado);
+            return raster;
+        }
+    }
+
+    private static void paraCadaFaixa(int largura, int altura, java.util.function.BiConsumer<Integer, Integer> tarefa) {
+        int faixas = (altura + LINHAS_POR_FAIXA - 1) / LINHAS_POR_FAIXA;
+        IntStream indices = IntStream.range(0, faixas);
+
+        if ((long) largura * altura >= PIXELS_PARA_PARALELIZAR) {
+            indices = indices.parallel();
+        }
+
+        indices.forEach(f -> {
+            int yInicio = f * LINHAS_POR_FAIXA;
+            tarefa.accept(yInicio, Math.min(LINHAS_POR_FAIXA, altura - yInicio));
+        });
+    }
+
+    // Lê as linhas [yInicio, yInicio + linhas) em bloco e grava os pixels já quantizados em destino
+    private void decodificarFaixa(BufferedImage imagem, int yInicio, int linhas, int[] destino, int deslocamento) {
+        int largura = imagem.getWidth();
+        int total = largura * linhas;
+        Raster raster = imagem.getRaster();
+
+        switch (imagem.getType()) {
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_INT_RGB: {
+                int[] pixels = (int[]) raster.getDataElements(0, yInicio, largura, linhas, null);
+                for (int i = 0; i < total; i++) {
+                    destino[deslocamento + i] = processarPixelParaFloodFill(pixels[i]);
+                }
+                break;
+            }
+            case BufferedImage.TYPE_3BYTE_BGR: {
+                // Elementos na ordem das bandas: R, G, B
+                byte[] bytes = (byte[]) raster.getDataElements(0, yInicio, largura, linhas, null);
+                for (int i = 0, j = 0; i < total; i++, j += 3) {
+                    destino[deslocamento + i] = quantizarCor(bytes[j] & 0xFF, bytes[j + 1] & 0xFF, bytes[j + 2] & 0xFF);
+                }
+                break;
+            }
+            case BufferedImage.TYPE_4BYTE_ABGR: {
+                // Elementos na ordem das bandas: R, G, B, A
+                byte[] bytes = (byte[]) raster.getDataElements(0, yInicio, largura, linhas, null);
+                for (int i = 0, j = 0; i < total; i++, j += 4) {
+                    destino[deslocamento + i] = quantizarCor(bytes[j] & 0xFF, bytes[j + 1] & 0xFF, bytes[j + 2] & 0xFF);
+                }
+                break;
+            }
+            default: {
+                int[] pixels = imagem.getRGB(0, yInicio, largura, linhas, null, 0, largura);
+                for (int i = 0; i < total; i++) {
+                    destino[deslocamento + i] = processarPixelParaFloodFill(pixels[i]);
+                }
+            }
+        }
+    }
+
+    // Carrega a imagem sem quantização, para o preenchimento com tolerância
+    public RasterPixel carregarImagemOriginal(String caminhoArquivo) {
+        try {
+            BufferedImage imagem = lerPNG(caminhoArquivo);
+
+            System.out.println("✓ Imagem PNG original carregada: " + imagem.getWidth() + "x" + imagem.getHeight() + " pixels");
+            return RasterPixel.envolver(imagem);
+
+        } catch (IOException | IllegalArgumentException e) {
+            return RasterPixel.deMatriz(exemploAposErro(e));
+        }
+    }
+
+    // Leitura comum a todos os carregadores: valida o formato e decodifica o PNG, sem fallback
+    private BufferedImage lerPNG(String caminhoArquivo) throws IOException {
+        exigirFormatoPNG(caminhoArquivo);
+
+        System.out.println("Carregando imagem PNG: " + caminhoArquivo);
+        BufferedImage imagem = ImageIO.read(new File(caminhoArquivo));
+
+        if (imagem == null) {
+            throw new IOException("Não foi possível carregar a imagem PNG");
+        }
+        return imagem;
+    }
+
+    // Validação obrigatória de formato PNG
+    private void exigirFormatoPNG(String caminhoArquivo) {
+        if (!validarFormatoPNG(caminhoArquivo)) {
+            throw new IllegalArgumentException("ERRO: Formato deve ser PNG conforme especificação do trabalho!");
+        }
+    }
+
+    // Fallback dos carregadores públicos: registra a falha e devolve a matriz de exemplo
+    private int[][] exemploAposErro(Exception e) {
+        System.err.println("✗ ERRO ao carregar imagem PNG: " + e.getMessage());
+        System.out.println("Gerando matriz de exemplo que atende aos requisitos...");
+        return criarMatrizExemploConformeRequisitos();
     }
 
     // Processamento mantendo cores sólidas
     private int processarPixelParaFloodFill(int rgb) {
         // Extrai componentes RGB
-        int r = (rgb >> 16) & 0xFF;
-        int g = (rgb >> 8) & 0xFF;
-        int b = rgb & 0xFF;
+        return quantizarCor((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+    }
 
+    // Versão das regras de quantizarCor, gravada no cabeçalho do CacheRaster.
+    // Incrementar ao mudar os limiares, para invalidar os caches já gravados
+    static final int VERSAO_QUANTIZACAO = 1;
+
+    private static int quantizarCor(int r, int g, int b) {
         // Detecta cores puras primeiro (cores sólidas)
         if (r > 230 && g < 30 && b < 30) return 0xFFFF0000; // Vermelho sólido
         if (r < 30 && g > 230 && b < 30) return 0xFF00FF00; // Verde sólido
         if (r < 30 && g < 30 && b > 230) return 0xFF0000FF; // Azul sólido
 
-        // Para outras cores, aplica threshold para preto/branco
-        int luminosidade = (int) (0.299 * r + 0.587 * g + 0.114 * b);
+        // Para outras cores, aplica threshold para preto/branco.
+        // Luminosidade em aritmética inteira (x1000); só no limite exato recorre ao cálculo em double
+        // para manter o mesmo arredondamento da fórmula original
+        int luminosidade = 299 * r + 587 * g + 114 * b;
+        boolean claro = luminosidade > 128000
+                || (luminosidade == 128000 && (int) (0.299 * r + 0.587 * g + 0.114 * b) > 127);
 
-        if (luminosidade > 127) {
+        if (claro) {
             return 0xFFFFFFFF; // Branco (fundo)
         } else {
             return 0xFF000000; // Preto (divisões)
@@ -151,8 +388,12 @@ class ProcessadorImagem {
     }
 
     public int[] encontrarPixelBrancoNoCentro(int[][] matriz) {
-        int altura = matriz.length;
-        int largura = matriz[0].length;
+        return encontrarPixelBrancoNoCentro(new MatrizPixelArray(matriz));
+    }
+
+    public int[] encontrarPixelBrancoNoCentro(MatrizPixel matriz) {
+        int altura = matriz.getAltura();
+        int largura = matriz.getLargura();
         int centroY = altura / 2;
         int centroX = largura / 2;
 
@@ -160,7 +401,7 @@ class ProcessadorImagem {
         System.out.println("Centro da imagem: (" + centroX + ", " + centroY + ")");
 
         // Verifica centro primeiro
-        if (matriz[centroY][centroX] == 0xFFFFFFFF) {
+        if (matriz.obterCor(centroX, centroY) == 0xFFFFFFFF) {
             System.out.println("✓ Pixel branco encontrado no centro!");
             return new int[]{centroX, centroY};
         }
@@ -174,7 +415,7 @@ class ProcessadorImagem {
                         int x = centroX + dx;
 
                         if (y >= 0 && y < altura && x >= 0 && x < largura) {
-                            if (matriz[y][x] == 0xFFFFFFFF) {
+                            if (matriz.obterCor(x, y) == 0xFFFFFFFF) {
                                 System.out.println("✓ Pixel branco encontrado em: (" + x + ", " + y + ")");
                                 return new int[]{x, y};
                             }
@@ -189,15 +430,20 @@ class ProcessadorImagem {
     }
 
     public int[] encontrarPixelBrancoEmAreaFechada(int[][] matriz) {
-        int altura = matriz.length;
-        int largura = matriz[0].length;
+        return encontrarPixelBrancoEmAreaFechada(new MatrizPixelArray(matriz));
+    }
+
+    // Só lê pixels pela interface: serve também às matrizes em trechos, sem expandi-las
+    public int[] encontrarPixelBrancoEmAreaFechada(MatrizPixel matriz) {
+        int altura = matriz.getAltura();
+        int largura = matriz.getLargura();
 
         System.out.println("Procurando área ideal para demonstração do Flood Fill...");
 
         // Procura regiões brancas adequadas para demonstração
         for (int y = 2; y < altura - 2; y++) {
             for (int x = 2; x < largura - 2; x++) {
-                if (matriz[y][x] == 0xFFFFFFFF) {
+                if (matriz.obterCor(x, y) == 0xFFFFFFFF) {
                     boolean areaPromissora = verificarAreaParaFloodFill(matriz, x, y, 3);
 
                     if (areaPromissora) {
@@ -211,7 +457,7 @@ class ProcessadorImagem {
         return encontrarPixelBrancoNoCentro(matriz);
     }
 
-    private boolean verificarAreaParaFloodFill(int[][] matriz, int centroX, int centroY, int raio) {
+    private boolean verificarAreaParaFloodFill(MatrizPixel matriz, int centroX, int centroY, int raio) {
         int pixelsBrancosNaArea = 0;
         int totalPixelsVerificados = 0;
 
@@ -220,9 +466,9 @@ class ProcessadorImagem {
                 int y = centroY + dy;
                 int x = centroX + dx;
 
-                if (y >= 0 && y < matriz.length && x >= 0 && x < matriz[0].length) {
+                if (y >= 0 && y < matriz.getAltura() && x >= 0 && x < matriz.getLargura()) {
                     totalPixelsVerificados++;
-                    if (matriz[y][x] == 0xFFFFFFFF) {
+                    if (matriz.obterCor(x, y) == 0xFFFFFFFF) {
                         pixelsBrancosNaArea++;
                     }
                 }
@@ -282,15 +528,16 @@ class ProcessadorImagem {
     }
 
     public void salvarImagemAnimacao(int[][] matriz, int frame, String tipo) {
+        salvarImagemAnimacao(new MatrizPixelArray(matriz), frame, tipo);
+    }
+
+    public void salvarImagemAnimacao(MatrizPixel matriz, int frame, String tipo) {
 
         try {
-            BufferedImage imagem = criarBufferedImage(matriz);
             String nomeArquivo = String.format("%s/animacao_%s_frame_%06d.png",
                     diretorioSaida, tipo.toLowerCase(), frame);
 
-            if (!ImageIO.write(imagem, "PNG", new File(nomeArquivo))) {
-                throw new IOException("Falha ao escrever PNG");
-            }
+            gravarPNG(matriz, nomeArquivo);
 
             if (frame % 200 == 0) {
                 System.out.println("✓ Frame " + frame + " salvo em PNG");
@@ -301,14 +548,15 @@ class ProcessadorImagem {
     }
 
     public void salvarImagemFinal(int[][] matriz, String tipo) {
+        salvarImagemFinal(new MatrizPixelArray(matriz), tipo);
+    }
+
+    public void salvarImagemFinal(MatrizPixel matriz, String tipo) {
         try {
-            BufferedImage imagem = criarBufferedImage(matriz);
             String nomeArquivo = String.format("%s/resultado_final_%s.png",
                     diretorioSaida, tipo.toLowerCase());
 
-            if (!ImageIO.write(imagem, "PNG", new File(nomeArquivo))) {
-                throw new IOException("Falha ao escrever PNG");
-            }
+            gravarPNG(matriz, nomeArquivo);
 
             System.out.println("✓ Imagem final PNG salva: " + nomeArquivo);
         } catch (IOException e) {
@@ -316,18 +564,60 @@ class ProcessadorImagem {
         }
     }
 
-    private BufferedImage criarBufferedImage(int[][] matriz) {
-        int altura = matriz.length;
-        int largura = matriz[0].length;
-        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+    // Representações com imagem própria (RasterPixel) são gravadas sem cópia. O RasterMapeado, maior que o
+    // heap, é gravado linha a linha. As demais copiam suas linhas para uma imagem persistente deste
+    // processador, protegida por sincronização até o PNG ser escrito.
+    private void gravarPNG(MatrizPixel matriz, String nomeArquivo) throws IOException {
+        BufferedImage imagem = matriz.imagemSemCopia();
 
-        for (int y = 0; y < altura; y++) {
-            for (int x = 0; x < largura; x++) {
-                imagem.setRGB(x, y, matriz[y][x]);
+        if (imagem != null) {
+            escreverPNG(imagem, nomeArquivo);
+            return;
+        }
+
+        if (matriz instanceof RasterMapeado) {
+            escreverPNGPorLinhas(matriz, nomeArquivo);
+            return;
+        }
+
+        synchronized (this) {
+            escreverPNG(criarBufferedImage(matriz), nomeArquivo);
+        }
+    }
+
+    private static void escreverPNGPorLinhas(MatrizPixel matriz, String nomeArquivo) throws IOException {
+        int largura = matriz.getLargura();
+        int[] linha = new int[largura];
+
+        try (GravadorPNGSequencial gravador = new GravadorPNGSequencial(new File(nomeArquivo), largura, matriz.getAltura())) {
+            for (int y = 0; y < matriz.getAltura(); y++) {
+                matriz.copiarLinha(y, linha, 0);
+                gravador.gravarLinha(linha, 0);
             }
         }
+    }
 
-        return imagem;
+    private static void escreverPNG(BufferedImage imagem, String nomeArquivo) throws IOException {
+        if (!ImageIO.write(imagem, "PNG", new File(nomeArquivo))) {
+            throw new IOException("Falha ao escrever PNG");
+        }
+    }
+
+    // Reaproveita a mesma BufferedImage enquanto as dimensões não mudarem: só System.arraycopy por linha
+    private BufferedImage criarBufferedImage(MatrizPixel matriz) {
+        int largura = matriz.getLargura();
+        int altura = matriz.getAltura();
+
+        if (imagemReutilizavel == null || imagemReutilizavel.getWidth() != largura || imagemReutilizavel.getHeight() != altura) {
+            imagemReutilizavel = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        int[] dados = ((DataBufferInt) imagemReutilizavel.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < altura; y++) {
+            matriz.copiarLinha(y, dados, y * largura);
+        }
+
+        return imagemReutilizavel;
     }
 
     // ATUALIZAÇÃO: Validação de PNG
@@ -0,0 +1,433 @@
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Modo em lote sem interface: processa vários PNGs em threads virtuais, limitando a memória em uso
+//
+// Uso: java Main --lote <pasta|arquivo.png>... [--semente x,y[,RRGGBB]]... [--saida pasta]
+//                [--memoria-mb N] [--estrategia pilha|fila|scanline|trechos|indice] [--cor RRGGBB] [--em-disco]
+//
+// Com mais de uma semente, pilha, fila e scanline dão lugar a preencherMultiplasSementes, que resolve
+// todas numa só travessia: uma semente que cai numa região já pintada por outra é descartada.
+// Com a estratégia "indice", o índice de regiões é construído uma vez por imagem e reaproveitado
+// por todas as sementes dela. Com "trechos", a imagem é carregada, preenchida e salva em RasterRLE,
+// sem passar por uma matriz int[][].
+//
+// Com --em-disco, cada imagem é decodificada em uma passada para um RasterMapeado (ladrilhos em arquivo
+// na pasta de saída, apagado no fim) e gravada de volta em PNG linha a linha, para imagens maiores que
+// o heap. Só as estratégias pilha, fila e scanline trabalham sobre ele sem expandir a matriz.
+class ProcessamentoLote {
+    private static final List<String> ESTRATEGIAS = List.of("pilha", "fila", "scanline", "trechos", "indice");
+
+    private static final int MEMORIA_PADRAO_MB = 512;
+    private static final int BYTES_POR_MB = 1 << 20;
+    // Matriz int[][], imagem decodificada e folga para a estrutura de preenchimento
+    private static final int BYTES_ESTIMADOS_POR_PIXEL = 12;
+    // Em disco: o bitset de visitados (1 bit por pixel) e os ladrilhos residentes do RasterMapeado
+    private static final int PIXELS_POR_BYTE_EM_DISCO = 8;
+    private static final long BYTES_LADRILHOS_RESIDENTES = (long) RasterMapeado.LADRILHOS_RESIDENTES_PADRAO
+            * RasterMapeado.TAMANHO_LADRILHO_PADRAO * RasterMapeado.TAMANHO_LADRILHO_PADRAO * Integer.BYTES;
+    private static final String ARQUIVO_LADRILHOS = "ladrilhos.raster";
+
+    private final List<File> arquivos = new ArrayList<>();
+    // x, y e, opcionalmente, a cor própria da semente
+    private final List<int[]> sementes = new ArrayList<>();
+    private String diretorioSaida = "flood_fill_lote_output";
+    private int memoriaMB = MEMORIA_PADRAO_MB;
+    private String estrategia = "scanline";
+    private int cor = GerenciarCores.obterCorVermelha();
+    private boolean emDisco;
+
+    private Semaphore orcamentoMemoria;
+
+    // Pasta de saída de cada arquivo; nomes repetidos em pastas diferentes ganham sufixo
+    private final Map<File, String> pastasSaida = new HashMap<>();
+
+    // Resultado de um arquivo, uma linha do resumo
+    private static class ResultadoArquivo {
+        String arquivo;
+        int largura;
+        int altura;
+        String sementes = "";
+        String pixelsPorSemente = "";
+        long pixelsPintados;
+        long nanosCarregamento;
+        long nanosBusca;
+        long nanosPreenchimento;
+        long nanosSalvamento;
+        String status = "ok";
+    }
+
+    public static void executar(String[] args) {
+        ProcessamentoLote lote = new ProcessamentoLote();
+
+        try {
+            lote.lerArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            imprimirUso();
+            return;
+        }
+
+        lote.processar();
+    }
+
+    private static void imprimirUso() {
+        System.out.println("Uso: java Main --lote <pasta|arquivo.png>... [--semente x,y[,RRGGBB]]... [--saida pasta]");
+        System.out.println("                 [--memoria-mb N] [--estrategia " + String.join("|", ESTRATEGIAS) + "] [--cor RRGGBB]"
+                + " [--em-disco]");
+        System.out.println("Sem --semente, o ponto inicial é escolhido por encontrarPixelBrancoEmAreaFechada.");
+        System.out.println("Sementes sem cor própria usam --cor.");
+    }
+
+    private void lerArgumentos(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String argumento = args[i];
+
+            switch (argumento) {
+                case "--semente":
+                    String[] partes = valor(args, ++i, argumento).split(",");
+                    if (partes.length != 2 && partes.length != 3) {
+                        throw new IllegalArgumentException("Semente inválida (use x,y ou x,y,RRGGBB): " + args[i]);
+                    }
+                    int[] semente = new int[partes.length];
+                    semente[0] = Integer.parseInt(partes[0].trim());
+                    semente[1] = Integer.parseInt(partes[1].trim());
+                    if (partes.length == 3) {
+                        semente[2] = 0xFF000000 | Integer.parseInt(partes[2].trim(), 16);
+                    }
+                    sementes.add(semente);
+                    break;
+                case "--saida":
+                    diretorioSaida = valor(args, ++i, argumento);
+                    break;
+                case "--memoria-mb":
+                    memoriaMB = Integer.parseInt(valor(args, ++i, argumento));
+                    if (memoriaMB <= 0) {
+                        throw new IllegalArgumentException("O orçamento de memória deve ser positivo");
+                    }
+                    break;
+                case "--estrategia":
+                    estrategia = valor(args, ++i, argumento).toLowerCase(Locale.ROOT);
+                    if (!ESTRATEGIAS.contains(estrategia)) {
+                        throw new IllegalArgumentException("Estratégia desconhecida: " + estrategia);
+                    }
+                    break;
+                case "--cor":
+                    cor = 0xFF000000 | Integer.parseInt(valor(args, ++i, argumento), 16);
+                    break;
+                case "--em-disco":
+                    emDisco = true;
+                    break;
+                default:
+                    adicionarEntrada(new File(argumento));
+            }
+        }
+
+        if (arquivos.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum arquivo PNG informado");
+        }
+        // "trechos" e "indice" montam estruturas do tamanho da imagem no heap
+        if (emDisco && (estrategia.equals("trechos") || estrategia.equals("indice"))) {
+            throw new IllegalArgumentException("--em-disco só funciona com as estratégias pilha, fila e scanline");
+        }
+    }
+
+    private static String valor(String[] args, int indice, String opcao) {
+        if (indice >= args.length) {
+            throw new IllegalArgumentException("Faltou o valor de " + opcao);
+        }
+        return args[indice];
+    }
+
+    private void adicionarEntrada(File entrada) {
+        if (entrada.isDirectory()) {
+            File[] pngs = entrada.listFiles((dir, nome) -> nome.toLowerCase(Locale.ROOT).endsWith(".png"));
+            if (pngs != null) {
+                java.util.Arrays.sort(pngs);
+                arquivos.addAll(List.of(pngs));
+            }
+        } else if (ProcessadorImagem.validarFormatoPNG(entrada.getPath())) {
+            arquivos.add(entrada);
+        } else {
+            throw new IllegalArgumentException("Entrada não é uma pasta nem um arquivo PNG: " + entrada);
+        }
+    }
+
+    private void processar() {
+        System.out.println("=== PROCESSAMENTO EM LOTE ===");
+        System.out.println("Arquivos: " + arquivos.size() + " | Estratégia: " + estrategia
+                + " | Orçamento de memória: " + memoriaMB + " MB" + (emDisco ? " | Raster em disco" : ""));
+
+        new File(diretorioSaida).mkdirs();
+        orcamentoMemoria = new Semaphore(memoriaMB, true);
+        definirPastasSaida();
+
+        List<Future<ResultadoArquivo>> tarefas = new ArrayList<>();
+        List<ResultadoArquivo> resultados = new ArrayList<>();
+        long inicio = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (File arquivo : arquivos) {
+                tarefas.add(executor.submit(() -> processarArquivo(arquivo)));
+            }
+
+            for (int i = 0; i < tarefas.size(); i++) {
+                try {
+                    resultados.add(tarefas.get(i).get());
+                } catch (Exception e) {
+                    ResultadoArquivo falha = new ResultadoArquivo();
+                    falha.arquivo = arquivos.get(i).getPath();
+                    falha.status = "erro: " + e.getMessage();
+                    resultados.add(falha);
+                }
+            }
+        }
+
+        long totalMillis = (System.nanoTime() - inicio) / 1_000_000;
+        salvarResumo(resultados);
+
+        long comErro = resultados.stream().filter(r -> !r.status.equals("ok")).count();
+        System.out.println("✓ Lote concluído em " + totalMillis + "ms: " + (resultados.size() - comErro)
+                + " arquivo(s) processado(s), " + comErro + " com erro");
+    }
+
+    // a/x.png e b/x.png rodam em paralelo: a segunda vira x_2 para não sobrescrever a primeira
+    private void definirPastasSaida() {
+        Set<String> usados = new HashSet<>();
+        for (File arquivo : arquivos) {
+            String nome = arquivo.getName().substring(0, arquivo.getName().length() - 4);
+            String pasta = nome;
+            for (int n = 2; !usados.add(pasta.toLowerCase(Locale.ROOT)); n++) {
+                pasta = nome + "_" + n;
+            }
+            pastasSaida.put(arquivo, pasta);
+        }
+    }
+
+    private ResultadoArquivo processarArquivo(File arquivo) throws InterruptedException {
+        ResultadoArquivo resultado = new ResultadoArquivo();
+        resultado.arquivo = arquivo.getPath();
+
+        int[] dimensoes;
+        try {
+            dimensoes = lerDimensoes(arquivo);
+        } catch (IOException e) {
+            resultado.status = "erro: " + e.getMessage();
+            System.err.println("✗ " + arquivo + ": " + e.getMessage());
+            return resultado;
+        }
+        resultado.largura = dimensoes[0];
+        resultado.altura = dimensoes[1];
+
+        // Uma imagem maior que o orçamento inteiro roda sozinha
+        long pixels = (long) dimensoes[0] * dimensoes[1];
+        long bytesEstimados = emDisco
+                ? pixels / PIXELS_POR_BYTE_EM_DISCO + BYTES_LADRILHOS_RESIDENTES
+                : pixels * BYTES_ESTIMADOS_POR_PIXEL;
+        int permissoes = (int) Math.min(memoriaMB, Math.max(1, (bytesEstimados + BYTES_POR_MB - 1) / BYTES_POR_MB));
+
+        orcamentoMemoria.acquire(permissoes);
+        try {
+            preencherArquivo(arquivo, resultado);
+        } catch (IOException | IllegalArgumentException e) {
+            // PNG com cabeçalho válido e dados corrompidos: sem imagem de exemplo no lugar
+            resultado.status = "erro: " + e.getMessage();
+            System.err.println("✗ " + arquivo + ": " + e.getMessage());
+        } finally {
+            orcamentoMemoria.release(permissoes);
+        }
+
+        return resultado;
+    }
+
+    private void preencherArquivo(File arquivo, ResultadoArquivo resultado) throws IOException {
+        ProcessadorImagem processador = new ProcessadorImagem(diretorioSaida + File.separator + pastasSaida.get(arquivo));
+
+        if (emDisco) {
+            File ladrilhos = new File(processador.getDiretorioSaida(), ARQUIVO_LADRILHOS);
+            long inicio = System.nanoTime();
+            try (RasterMapeado raster = processador.carregarRasterMapeado(arquivo.getPath(), ladrilhos.getPath())) {
+                resultado.nanosCarregamento = System.nanoTime() - inicio;
+                preencherESalvar(processador, raster, resultado);
+            } finally {
+                ladrilhos.delete();
+            }
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        MatrizPixel matriz = estrategia.equals("trechos")
+                ? processador.decodificarRasterRLE(arquivo.getPath())
+                : new MatrizPixelArray(processador.decodificarImagem(arquivo.getPath()));
+        resultado.nanosCarregamento = System.nanoTime() - inicio;
+
+        preencherESalvar(processador, matriz, resultado);
+    }
+
+    private void preencherESalvar(ProcessadorImagem processador, MatrizPixel matriz, ResultadoArquivo resultado) {
+        long inicio;
+        List<int[]> pontos = sementes;
+        if (pontos.isEmpty()) {
+            inicio = System.nanoTime();
+            pontos = List.of(processador.encontrarPixelBrancoEmAreaFechada(matriz));
+            resultado.nanosBusca = System.nanoTime() - inicio;
+        }
+
+        // Um só algoritmo por imagem: com "indice", o índice da primeira semente serve às demais
+        FloodFillAlgoritmo algoritmo = new FloodFillAlgoritmo(matriz, processador);
+        algoritmo.setSilencioso(true);
+
+        StringBuilder descricaoSementes = new StringBuilder();
+        for (int[] ponto : pontos) {
+            if (descricaoSementes.length() > 0) {
+                descricaoSementes.append(' ');
+            }
+            descricaoSementes.append(ponto[0]).append(';').append(ponto[1]);
+
+            if (ponto[0] < 0 || ponto[1] < 0 || ponto[0] >= resultado.largura || ponto[1] >= resultado.altura) {
+                resultado.status = "semente fora da imagem";
+            }
+        }
+        resultado.sementes = descricaoSementes.toString();
+
+        // "trechos" e "indice" seguem semente a semente: cada uma já reaproveita a sua representação
+        long[] pixelsPorSemente;
+        if (pontos.size() > 1 && !estrategia.equals("trechos") && !estrategia.equals("indice")) {
+            pixelsPorSemente = preencherMultiplasSementes(algoritmo, pontos, resultado);
+        } else {
+            pixelsPorSemente = preencherSementeASemente(algoritmo, pontos, resultado);
+        }
+
+        StringBuilder descricaoPixels = new StringBuilder();
+        for (long pixels : pixelsPorSemente) {
+            if (descricaoPixels.length() > 0) {
+                descricaoPixels.append(' ');
+            }
+            descricaoPixels.append(pixels);
+            resultado.pixelsPintados += pixels;
+        }
+        resultado.pixelsPorSemente = descricaoPixels.toString();
+
+        // O modo silencioso não grava a imagem final; no lote ela é o resultado
+        inicio = System.nanoTime();
+        processador.salvarImagemFinal(matriz, estrategia);
+        resultado.nanosSalvamento = System.nanoTime() - inicio;
+    }
+
+    // Todas as sementes numa travessia; a descartada (região já pintada por outra) fica com zero pixels
+    private long[] preencherMultiplasSementes(FloodFillAlgoritmo algoritmo, List<int[]> pontos,
+                                              ResultadoArquivo resultado) {
+        List<Semente> lista = new ArrayList<>(pontos.size());
+        for (int[] ponto : pontos) {
+            lista.add(new Semente(ponto[0], ponto[1], corDaSemente(ponto)));
+        }
+
+        ResultadoMultiplasSementes multiplas = algoritmo.preencherMultiplasSementes(lista);
+        resultado.nanosPreenchimento += algoritmo.getMetricas().getNanos(FloodFillMetricas.Fase.PREENCHIMENTO);
+        return multiplas.getPixelsPorSemente();
+    }
+
+    // Uma chamada por semente, com a estratégia escolhida; sementes fora da imagem ficam com zero pixels
+    private long[] preencherSementeASemente(FloodFillAlgoritmo algoritmo, List<int[]> pontos,
+                                            ResultadoArquivo resultado) {
+        long[] pixelsPorSemente = new long[pontos.size()];
+
+        for (int i = 0; i < pontos.size(); i++) {
+            int[] ponto = pontos.get(i);
+            if (ponto[0] < 0 || ponto[1] < 0 || ponto[0] >= resultado.largura || ponto[1] >= resultado.altura) {
+                continue;
+            }
+
+            int corSemente = corDaSemente(ponto);
+            switch (estrategia) {
+                case "pilha":
+                    algoritmo.preencherComPilha(ponto[0], ponto[1], corSemente);
+                    break;
+                case "fila":
+                    algoritmo.preencherComFila(ponto[0], ponto[1], corSemente);
+                    break;
+                case "trechos":
+                    algoritmo.preencherPorTrechos(ponto[0], ponto[1], corSemente);
+                    break;
+                case "indice":
+                    algoritmo.preencherComIndice(ponto[0], ponto[1], corSemente);
+                    break;
+                default:
+                    algoritmo.preencherComScanline(ponto[0], ponto[1], corSemente);
+            }
+
+            FloodFillMetricas metricas = algoritmo.getMetricas();
+            pixelsPorSemente[i] = metricas.getPixelsPintados();
+            resultado.nanosPreenchimento += metricas.getNanos(FloodFillMetricas.Fase.PREENCHIMENTO);
+        }
+
+        return pixelsPorSemente;
+    }
+
+    private int corDaSemente(int[] ponto) {
+        return ponto.length > 2 ? ponto[2] : cor;
+    }
+
+    // Lê só o cabeçalho do PNG, sem decodificar os pixels
+    private static int[] lerDimensoes(File arquivo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(arquivo)) {
+            if (entrada == null) {
+                throw new IOException("Não foi possível abrir o arquivo");
+            }
+
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+            if (!leitores.hasNext()) {
+                throw new IOException("Formato de imagem não reconhecido");
+            }
+
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada);
+                return new int[]{leitor.getWidth(0), leitor.getHeight(0)};
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    private void salvarResumo(List<ResultadoArquivo> resultados) {
+        String caminho = diretorioSaida + File.separator + "resumo_lote.csv";
+
+        try (PrintWriter csv = new PrintWriter(caminho, "UTF-8")) {
+            csv.println("arquivo,largura,altura,sementes,estrategia,pixels_por_semente,pixels_pintados,"
+                    + "nanos_carregamento,nanos_busca_semente,nanos_preenchimento,nanos_salvamento_final,status");
+            for (ResultadoArquivo r : resultados) {
+                csv.println(campoCsv(r.arquivo) + "," + r.largura + "," + r.altura + "," + campoCsv(r.sementes) + ","
+                        + estrategia + "," + campoCsv(r.pixelsPorSemente) + "," + r.pixelsPintados + "," + r.nanosCarregamento + "," + r.nanosBusca + ","
+                        + r.nanosPreenchimento + "," + r.nanosSalvamento + "," + campoCsv(r.status));
+            }
+            System.out.println("✓ Resumo do lote salvo: " + caminho);
+        } catch (IOException e) {
+            System.err.println("✗ ERRO ao salvar resumo do lote: " + e.getMessage());
+        }
+    }
+
+    // Caminhos e mensagens de erro podem ter vírgulas, aspas ou quebras de linha
+    private static String campoCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,153 @@
+// Raster em ladrilhos com cópia na escrita sobre uma imagem base compartilhada. Leituras de
+// ladrilhos intocados vão direto à base; um ladrilho só é copiado na primeira escrita. Assim
+// várias execuções sobre a mesma imagem custam memória proporcional às regiões pintadas.
+// A base não pode ser alterada enquanto houver rasters sobre ela. Não é thread-safe.
+class RasterCopiaEscrita implements MatrizPixel {
+    public static final int TAMANHO_LADRILHO_PADRAO = 64;
+
+    private final MatrizPixel base;
+    private final int largura;
+    private final int altura;
+    private final int tamanhoLadrilho;
+    private final int ladrilhosX;
+
+    // null enquanto o ladrilho não foi escrito
+    private final int[][] ladrilhos;
+    private int ladrilhosCopiados;
+
+    public RasterCopiaEscrita(MatrizPixel base) {
+        this(base, TAMANHO_LADRILHO_PADRAO);
+    }
+
+    public RasterCopiaEscrita(MatrizPixel base, int tamanhoLadrilho) {
+        if (tamanhoLadrilho <= 0) {
+            throw new IllegalArgumentException("O tamanho do ladrilho deve ser positivo");
+        }
+        this.base = base;
+        this.largura = base.getLargura();
+        this.altura = base.getAltura();
+        this.tamanhoLadrilho = tamanhoLadrilho;
+        this.ladrilhosX = (largura + tamanhoLadrilho - 1) / tamanhoLadrilho;
+        int ladrilhosY = (altura + tamanhoLadrilho - 1) / tamanhoLadrilho;
+        this.ladrilhos = new int[ladrilhosX * ladrilhosY][];
+    }
+
+    public static RasterCopiaEscrita sobre(int[][] base) {
+        return new RasterCopiaEscrita(new MatrizPixelArray(base));
+    }
+
+    @Override
+    public int getLargura() {
+        return largura;
+    }
+
+    @Override
+    public int getAltura() {
+        return altura;
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        int[] ladrilho = ladrilhos[indiceLadrilho(x, y)];
+        if (ladrilho == null) {
+            return base.obterCor(x, y);
+        }
+        return ladrilho[indiceNoLadrilho(x, y)];
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        ladrilhoParaEscrita(x, y)[indiceNoLadrilho(x, y)] = cor;
+    }
+
+    // Pinta o trecho um ladrilho de cada vez
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        int x = xInicio;
+        while (x <= xFim) {
+            int fimNoLadrilho = Math.min(xFim, (x / tamanhoLadrilho + 1) * tamanhoLadrilho - 1);
+            int[] ladrilho = ladrilhoParaEscrita(x, y);
+            int inicio = indiceNoLadrilho(x, y);
+            java.util.Arrays.fill(ladrilho, inicio, inicio + (fimNoLadrilho - x) + 1, cor);
+            x = fimNoLadrilho + 1;
+        }
+    }
+
+    // Copia a linha da base e sobrepõe os pedaços dos ladrilhos já escritos
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        base.copiarLinha(y, destino, deslocamento);
+
+        int linhaLadrilho = (y / tamanhoLadrilho) * ladrilhosX;
+        int linhaNoLadrilho = (y % tamanhoLadrilho) * tamanhoLadrilho;
+        for (int tx = 0; tx < ladrilhosX; tx++) {
+            int[] ladrilho = ladrilhos[linhaLadrilho + tx];
+            if (ladrilho != null) {
+                int x = tx * tamanhoLadrilho;
+                int larguraNoLadrilho = Math.min(tamanhoLadrilho, largura - x);
+                System.arraycopy(ladrilho, linhaNoLadrilho, destino, deslocamento + x, larguraNoLadrilho);
+            }
+        }
+    }
+
+    // Volta a ler tudo da base, liberando os ladrilhos copiados
+    public void descartarAlteracoes() {
+        java.util.Arrays.fill(ladrilhos, null);
+        ladrilhosCopiados = 0;
+    }
+
+    public MatrizPixel getBase() {
+        return base;
+    }
+
+    public int getTamanhoLadrilho() {
+        return tamanhoLadrilho;
+    }
+
+    public int getLadrilhosCopiados() {
+        return ladrilhosCopiados;
+    }
+
+    public int getTotalLadrilhos() {
+        return ladrilhos.length;
+    }
+
+    public long getBytesCopiados() {
+        return (long) ladrilhosCopiados * tamanhoLadrilho * tamanhoLadrilho * Integer.BYTES;
+    }
+
+    private int[] ladrilhoParaEscrita(int x, int y) {
+        int indice = indiceLadrilho(x, y);
+        int[] ladrilho = ladrilhos[indice];
+        if (ladrilho == null) {
+            ladrilho = copiarDaBase(indice);
+            ladrilhos[indice] = ladrilho;
+            ladrilhosCopiados++;
+        }
+        return ladrilho;
+    }
+
+    private int[] copiarDaBase(int indice) {
+        int[] ladrilho = new int[tamanhoLadrilho * tamanhoLadrilho];
+        int x0 = (indice % ladrilhosX) * tamanhoLadrilho;
+        int y0 = (indice / ladrilhosX) * tamanhoLadrilho;
+        int x1 = Math.min(x0 + tamanhoLadrilho, largura);
+        int y1 = Math.min(y0 + tamanhoLadrilho, altura);
+
+        for (int y = y0; y < y1; y++) {
+            int destino = (y - y0) * tamanhoLadrilho;
+            for (int x = x0; x < x1; x++) {
+                ladrilho[destino + x - x0] = base.obterCor(x, y);
+            }
+        }
+        return ladrilho;
+    }
+
+    private int indiceLadrilho(int x, int y) {
+        return (y / tamanhoLadrilho) * ladrilhosX + x / tamanhoLadrilho;
+    }
+
+    private int indiceNoLadrilho(int x, int y) {
+        return (y % tamanhoLadrilho) * tamanhoLadrilho + x % tamanhoLadrilho;
+    }
+}
@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Raster em ladrilhos guardado em arquivo, para imagens maiores que o heap. Os ladrilhos em uso
+// ficam num conjunto fixo de buffers diretos (LRU) lidos e gravados com FileChannel: ao sair do
+// LRU, o ladrilho alterado volta para o arquivo e o buffer é reaproveitado pelo próximo. Assim a
+// memória residente é limitada e nenhum mapeamento fica esperando o coletor para ser desfeito.
+// Não é thread-safe: use com os motores sequenciais.
+class RasterMapeado implements MatrizPixel, AutoCloseable {
+    public static final int TAMANHO_LADRILHO_PADRAO = 256;
+    public static final int LADRILHOS_RESIDENTES_PADRAO = 64;
+
+    private final int largura;
+    private final int altura;
+    private final int tamanhoLadrilho;
+    private final int ladrilhosX;
+    private final long bytesPorLadrilho;
+    private final RandomAccessFile arquivo;
+    private final FileChannel canal;
+    private final int ladrilhosResidentes;
+    private final Map<Integer, Moldura> residentes;
+
+    // Último ladrilho acessado, para não consultar o LRU a cada pixel
+    private int indiceUltimo = -1;
+    private Moldura ultimo;
+
+    // Buffer de um ladrilho residente; sujo quando ainda não foi gravado no arquivo
+    private static final class Moldura {
+        final ByteBuffer bytes;
+        final IntBuffer pixels;
+        int indice;
+        boolean sujo;
+
+        Moldura(int bytesPorLadrilho) {
+            bytes = ByteBuffer.allocateDirect(bytesPorLadrilho).order(ByteOrder.nativeOrder());
+            pixels = bytes.asIntBuffer();
+        }
+    }
+
+    public RasterMapeado(String caminhoArquivo, int largura, int altura) throws IOException {
+        this(caminhoArquivo, largura, altura, TAMANHO_LADRILHO_PADRAO, LADRILHOS_RESIDENTES_PADRAO);
+    }
+
+    // Abre o arquivo (criando-o se preciso) com espaço para todos os ladrilhos da imagem
+    public RasterMapeado(String caminhoArquivo, int largura, int altura, int tamanhoLadrilho, int ladrilhosResidentes)
+            throws IOException {
+        this.largura = largura;
+        this.altura = altura;
+        this.tamanhoLadrilho = tamanhoLadrilho;
+        this.ladrilhosX = (largura + tamanhoLadrilho - 1) / tamanhoLadrilho;
+        int ladrilhosY = (altura + tamanhoLadrilho - 1) / tamanhoLadrilho;
+        this.bytesPorLadrilho = (long) tamanhoLadrilho * tamanhoLadrilho * Integer.BYTES;
+
+        this.arquivo = new RandomAccessFile(caminhoArquivo, "rw");
+        this.arquivo.setLength(bytesPorLadrilho * ladrilhosX * ladrilhosY);
+        this.canal = arquivo.getChannel();
+
+        this.ladrilhosResidentes = Math.max(1, ladrilhosResidentes);
+        this.residentes = new LinkedHashMap<>(this.ladrilhosResidentes * 2, 0.75f, true);
+    }
+
+    @Override
+    public int getLargura() {
+        return largura;
+    }
+
+    @Override
+    public int getAltura() {
+        return altura;
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        return ladrilho(x, y).pixels.get(indiceNoLadrilho(x, y));
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        ladrilhoParaEscrita(x, y).put(indiceNoLadrilho(x, y), cor);
+    }
+
+    // Pinta o trecho um ladrilho de cada vez
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        int x = xInicio;
+        while (x <= xFim) {
+            int fimNoLadrilho = Math.min(xFim, (x / tamanhoLadrilho + 1) * tamanhoLadrilho - 1);
+            IntBuffer buffer = ladrilhoParaEscrita(x, y);
+            int indice = indiceNoLadrilho(x, y);
+            for (int i = 0; i <= fimNoLadrilho - x; i++) {
+                buffer.put(indice + i, cor);
+            }
+            x = fimNoLadrilho + 1;
+        }
+    }
+
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        for (int x = 0; x < largura; x += tamanhoLadrilho) {
+            int quantidade = Math.min(tamanhoLadrilho, largura - x);
+            ladrilho(x, y).pixels.get(indiceNoLadrilho(x, y), destino, deslocamento + x, quantidade);
+        }
+    }
+
+    // Grava a linha y a partir de origem[deslocamento .. deslocamento + largura)
+    public void gravarLinha(int y, int[] origem, int deslocamento) {
+        for (int x = 0; x < largura; x += tamanhoLadrilho) {
+            int quantidade = Math.min(tamanhoLadrilho, largura - x);
+            ladrilhoParaEscrita(x, y).put(indiceNoLadrilho(x, y), origem, deslocamento + x, quantidade);
+        }
+    }
+
+    public int getTamanhoLadrilho() {
+        return tamanhoLadrilho;
+    }
+
+    private int indiceNoLadrilho(int x, int y) {
+        return (y % tamanhoLadrilho) * tamanhoLadrilho + (x % tamanhoLadrilho);
+    }
+
+    private IntBuffer ladrilhoParaEscrita(int x, int y) {
+        Moldura moldura = ladrilho(x, y);
+        moldura.sujo = true;
+        return moldura.pixels;
+    }
+
+    private Moldura ladrilho(int x, int y) {
+        int indice = (y / tamanhoLadrilho) * ladrilhosX + (x / tamanhoLadrilho);
+        if (indice == indiceUltimo) {
+            return ultimo;
+        }
+
+        Moldura moldura = residentes.get(indice);
+        if (moldura == null) {
+            moldura = carregar(indice);
+            residentes.put(indice, moldura);
+        }
+
+        indiceUltimo = indice;
+        ultimo = moldura;
+        return moldura;
+    }
+
+    // Reaproveita o buffer do ladrilho menos usado (gravando-o antes, se alterado) e lê o novo
+    private Moldura carregar(int indice) {
+        try {
+            Moldura moldura;
+            if (residentes.size() < ladrilhosResidentes) {
+                moldura = new Moldura((int) bytesPorLadrilho);
+            } else {
+                Iterator<Moldura> maisAntigo = residentes.values().iterator();
+                moldura = maisAntigo.next();
+                maisAntigo.remove();
+                gravar(moldura);
+            }
+
+            moldura.indice = indice;
+            moldura.sujo = false;
+            moldura.bytes.clear();
+            long posicao = indice * bytesPorLadrilho;
+            while (moldura.bytes.hasRemaining()) {
+                if (canal.read(moldura.bytes, posicao + moldura.bytes.position()) < 0) {
+                    break;
+                }
+            }
+            return moldura;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o ladrilho " + indice, e);
+        }
+    }
+
+    private void gravar(Moldura moldura) throws IOException {
+        if (!moldura.sujo) {
+            return;
+        }
+        moldura.bytes.clear();
+        long posicao = moldura.indice * bytesPorLadrilho;
+        while (moldura.bytes.hasRemaining()) {
+            canal.write(moldura.bytes, posicao + moldura.bytes.position());
+        }
+        moldura.sujo = false;
+    }
+
+    // Grava no arquivo os ladrilhos residentes alterados
+    public void sincronizar() throws IOException {
+        for (Moldura moldura : residentes.values()) {
+            gravar(moldura);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sincronizar();
+        } finally {
+            residentes.clear();
+            indiceUltimo = -1;
+            ultimo = null;
+            canal.close();
+            arquivo.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+// Matriz com um byte por pixel apontando para uma paleta de até 256 cores. A imagem quantizada tem
+// só as cores de GerenciarCores, então ocupa 1/4 da memória de um int[] e só vira ARGB ao salvar.
+class RasterPaleta implements MatrizPixel {
+    private static final int MAXIMO_CORES = 256;
+
+    private final byte[] indices;
+    private final int largura;
+    private final int altura;
+    private final int[] paleta = new int[MAXIMO_CORES];
+    private int tamanhoPaleta;
+
+    // Última cor convertida em índice: os preenchimentos pintam sempre a mesma cor
+    private int ultimaCor;
+    private int ultimoIndice = -1;
+
+    private BufferedImage imagem;
+
+    // A paleta começa com as cores da quantização, branco no índice 0
+    public RasterPaleta(int largura, int altura) {
+        this.largura = largura;
+        this.altura = altura;
+        this.indices = new byte[largura * altura];
+
+        adicionarCor(GerenciarCores.obterCorBranca());
+        adicionarCor(GerenciarCores.obterCorPreta());
+        adicionarCor(GerenciarCores.obterCorVermelha());
+        adicionarCor(GerenciarCores.obterCorVerde());
+        adicionarCor(GerenciarCores.obterCorAzul());
+    }
+
+    public static RasterPaleta deMatriz(int[][] matriz) {
+        RasterPaleta raster = new RasterPaleta(matriz[0].length, matriz.length);
+
+        for (int y = 0; y < raster.altura; y++) {
+            raster.gravarLinha(y, matriz[y], 0);
+        }
+
+        return raster;
+    }
+
+    @Override
+    public int getLargura() {
+        return largura;
+    }
+
+    @Override
+    public int getAltura() {
+        return altura;
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        return paleta[indices[y * largura + x] & 0xFF];
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        indices[y * largura + x] = (byte) indiceDaCor(cor);
+    }
+
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        int inicioLinha = y * largura;
+        Arrays.fill(indices, inicioLinha + xInicio, inicioLinha + xFim + 1, (byte) indiceDaCor(cor));
+    }
+
+    // Expande a linha para ARGB
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        int inicioLinha = y * largura;
+        for (int x = 0; x < largura; x++) {
+            destino[deslocamento + x] = paleta[indices[inicioLinha + x] & 0xFF];
+        }
+    }
+
+    // Grava a linha y a partir de pixels ARGB em origem[deslocamento .. deslocamento + largura)
+    public void gravarLinha(int y, int[] origem, int deslocamento) {
+        int inicioLinha = y * largura;
+        for (int x = 0; x < largura; x++) {
+            indices[inicioLinha + x] = (byte) indiceDaCor(origem[deslocamento + x]);
+        }
+    }
+
+    // Imagem TYPE_BYTE_INDEXED sobre o mesmo byte[]: salvar não expande os pixels para ARGB
+    @Override
+    public BufferedImage imagemSemCopia() {
+        if (imagem == null) {
+            IndexColorModel modeloCores = new IndexColorModel(8, tamanhoPaleta, paleta, 0, true, -1, DataBufferByte.TYPE_BYTE);
+            WritableRaster raster = Raster.createInterleavedRaster(
+                    new DataBufferByte(indices, indices.length), largura, altura, largura, 1, new int[]{0}, null);
+
+            imagem = new BufferedImage(modeloCores, raster, false, null);
+        }
+        return imagem;
+    }
+
+    // Quantidade de pixels por índice da paleta, em uma passada pelos bytes
+    public long[] histograma() {
+        long[] contagens = new long[tamanhoPaleta];
+
+        for (byte indice : indices) {
+            contagens[indice & 0xFF]++;
+        }
+
+        return contagens;
+    }
+
+    public int obterIndice(int x, int y) {
+        return indices[y * largura + x] & 0xFF;
+    }
+
+    public int getTamanhoPaleta() {
+        return tamanhoPaleta;
+    }
+
+    public int obterCorDaPaleta(int indice) {
+        return paleta[indice];
+    }
+
+    public byte[] getIndices() {
+        return indices;
+    }
+
+    // Índice da cor na paleta, adicionando-a se for nova
+    public int indiceDaCor(int cor) {
+        if (cor == ultimaCor && ultimoIndice >= 0) {
+            return ultimoIndice;
+        }
+
+        int indice = -1;
+        for (int i = 0; i < tamanhoPaleta; i++) {
+            if (paleta[i] == cor) {
+                indice = i;
+                break;
+            }
+        }
+        if (indice < 0) {
+            indice = adicionarCor(cor);
+        }
+
+        ultimaCor = cor;
+        ultimoIndice = indice;
+        return indice;
+    }
+
+    private int adicionarCor(int cor) {
+        if (tamanhoPaleta == MAXIMO_CORES) {
+            throw new IllegalStateException("A paleta já tem " + MAXIMO_CORES + " cores");
+        }
+
+        // O modelo de cores da imagem compartilhada precisa ser refeito com a nova entrada
+        imagem = null;
+        paleta[tamanhoPaleta] = cor;
+        return tamanhoPaleta++;
+    }
+}
@@ -0,0 +1,175 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+// Matriz de pixels em um único int[] (linha a linha, com stride), podendo compartilhar o buffer de uma BufferedImage
+class RasterPixel implements MatrizPixel {
+    private static final int[] MASCARAS_ARGB = {0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000};
+
+    private int[] dados;
+    private int largura;
+    private int altura;
+    private int stride;
+    private int deslocamento;
+    private int margem;
+    private BufferedImage imagem;
+
+    public RasterPixel(int largura, int altura) {
+        this(new int[largura * altura], largura, altura, largura, 0);
+    }
+
+    public RasterPixel(int[] dados, int largura, int altura, int stride, int deslocamento) {
+        this.dados = dados;
+        this.largura = largura;
+        this.altura = altura;
+        this.stride = stride;
+        this.deslocamento = deslocamento;
+    }
+
+    // Envolve o DataBufferInt de uma imagem TYPE_INT_ARGB sem copiar; outros tipos são convertidos uma vez
+    public static RasterPixel envolver(BufferedImage imagem) {
+        if (imagem.getType() != BufferedImage.TYPE_INT_ARGB) {
+            BufferedImage convertida = new BufferedImage(imagem.getWidth(), imagem.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            java.awt.Graphics2D g = convertida.createGraphics();
+            g.drawImage(imagem, 0, 0, null);
+            g.dispose();
+            imagem = convertida;
+        }
+
+        WritableRaster raster = imagem.getRaster();
+        SinglePixelPackedSampleModel modelo = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+
+        int deslocamento = buffer.getOffset() + modelo.getOffset(
+                -raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+
+        RasterPixel resultado = new RasterPixel(buffer.getData(), imagem.getWidth(), imagem.getHeight(),
+                modelo.getScanlineStride(), deslocamento);
+        resultado.imagem = imagem;
+        return resultado;
+    }
+
+    // Cópia com uma moldura de 1 pixel em volta, pintada com a cor sentinela
+    public static RasterPixel comMargem(MatrizPixel origem) {
+        int largura = origem.getLargura();
+        int altura = origem.getAltura();
+        int stride = largura + 2;
+        int[] dados = new int[stride * (altura + 2)];
+
+        RasterPixel raster = new RasterPixel(dados, largura, altura, stride, stride + 1);
+        raster.margem = 1;
+
+        for (int y = 0; y < altura; y++) {
+            origem.copiarLinha(y, dados, raster.indice(0, y));
+        }
+        raster.pintarMargem(GerenciarCores.obterCorSentinela());
+
+        return raster;
+    }
+
+    public static RasterPixel deMatriz(int[][] matriz) {
+        int altura = matriz.length;
+        int largura = matriz[0].length;
+        RasterPixel raster = new RasterPixel(largura, altura);
+
+        for (int y = 0; y < altura; y++) {
+            System.arraycopy(matriz[y], 0, raster.dados, y * largura, largura);
+        }
+
+        return raster;
+    }
+
+    // Pinta a moldura em volta da área visível (sem efeito se não houver margem)
+    public void pintarMargem(int cor) {
+        if (margem < 1) {
+            return;
+        }
+
+        Arrays.fill(dados, indice(-1, -1), indice(largura + 1, -1), cor);
+        Arrays.fill(dados, indice(-1, altura), indice(largura + 1, altura), cor);
+        for (int y = 0; y < altura; y++) {
+            dados[indice(-1, y)] = cor;
+            dados[indice(largura, y)] = cor;
+        }
+    }
+
+    public int indice(int x, int y) {
+        return deslocamento + y * stride + x;
+    }
+
+    @Override
+    public int getLargura() {
+        return largura;
+    }
+
+    @Override
+    public int getAltura() {
+        return altura;
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        return dados[deslocamento + y * stride + x];
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        dados[deslocamento + y * stride + x] = cor;
+    }
+
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        int inicioLinha = deslocamento + y * stride;
+        Arrays.fill(dados, inicioLinha + xInicio, inicioLinha + xFim + 1, cor);
+    }
+
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        System.arraycopy(dados, indice(0, y), destino, deslocamento, largura);
+    }
+
+    // A imagem devolvida compartilha o mesmo int[]: nenhuma cópia por pixel
+    @Override
+    public BufferedImage imagemSemCopia() {
+        if (imagem == null) {
+            DataBufferInt buffer = new DataBufferInt(dados, dados.length - deslocamento, deslocamento);
+            SinglePixelPackedSampleModel modelo = new SinglePixelPackedSampleModel(
+                    buffer.getDataType(), largura, altura, stride, MASCARAS_ARGB);
+            WritableRaster raster = Raster.createWritableRaster(modelo, buffer, null);
+
+            imagem = new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+        }
+        return imagem;
+    }
+
+    @Override
+    public int[][] paraMatriz() {
+        int[][] matriz = new int[altura][largura];
+
+        for (int y = 0; y < altura; y++) {
+            System.arraycopy(dados, indice(0, y), matriz[y], 0, largura);
+        }
+
+        return matriz;
+    }
+
+    public int[] getDados() {
+        return dados;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public int getDeslocamento() {
+        return deslocamento;
+    }
+
+    public int getMargem() {
+        return margem;
+    }
+}
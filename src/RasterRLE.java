@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+// Matriz codificada por trechos (run-length) em cada linha: para cada trecho, o x inicial e a cor.
+// Imagens com grandes áreas sólidas e linhas finas ocupam memória proporcional ao número de trechos.
+class RasterRLE implements MatrizPixel {
+    private static final int CAPACIDADE_INICIAL = 4;
+
+    private final int largura;
+    private final int altura;
+    private final int[][] inicios;
+    private final int[][] cores;
+    private final int[] quantidade;
+
+    // Área de trabalho para reescrever uma linha (não é thread-safe)
+    private int[] iniciosTemporarios = new int[CAPACIDADE_INICIAL];
+    private int[] coresTemporarias = new int[CAPACIDADE_INICIAL];
+
+    // Cada linha começa com um único trecho da cor informada
+    public RasterRLE(int largura, int altura, int corInicial) {
+        this.largura = largura;
+        this.altura = altura;
+        this.inicios = new int[altura][];
+        this.cores = new int[altura][];
+        this.quantidade = new int[altura];
+
+        for (int y = 0; y < altura; y++) {
+            inicios[y] = new int[CAPACIDADE_INICIAL];
+            cores[y] = new int[CAPACIDADE_INICIAL];
+            cores[y][0] = corInicial;
+            quantidade[y] = 1;
+        }
+    }
+
+    public static RasterRLE deMatriz(int[][] matriz) {
+        RasterRLE raster = new RasterRLE(matriz[0].length, matriz.length, 0);
+
+        for (int y = 0; y < raster.altura; y++) {
+            raster.gravarLinha(y, matriz[y], 0);
+        }
+
+        return raster;
+    }
+
+    @Override
+    public int getLargura() {
+        return largura;
+    }
+
+    @Override
+    public int getAltura() {
+        return altura;
+    }
+
+    @Override
+    public int obterCor(int x, int y) {
+        return cores[y][trechoEm(x, y)];
+    }
+
+    @Override
+    public void definirCor(int x, int y, int cor) {
+        preencherTrecho(y, x, x, cor);
+    }
+
+    // Substitui [xInicio, xFim] por um trecho da cor e junta os vizinhos que ficarem com a mesma cor
+    @Override
+    public void preencherTrecho(int y, int xInicio, int xFim, int cor) {
+        int[] ini = inicios[y];
+        int[] crs = cores[y];
+        int n = quantidade[y];
+
+        int a = trechoEm(xInicio, y);
+        int b = trechoEm(xFim, y);
+        int fimB = fimTrecho(y, b);
+
+        garantirTemporarios(n + 2);
+        int m = 0;
+
+        for (int i = 0; i < a; i++) {
+            m = anexar(m, ini[i], crs[i]);
+        }
+        if (ini[a] < xInicio) {
+            m = anexar(m, ini[a], crs[a]);
+        }
+        m = anexar(m, xInicio, cor);
+        if (xFim < fimB) {
+            m = anexar(m, xFim + 1, crs[b]);
+        }
+        for (int i = b + 1; i < n; i++) {
+            m = anexar(m, ini[i], crs[i]);
+        }
+
+        if (ini.length < m) {
+            int capacidade = Math.max(m, ini.length * 2);
+            inicios[y] = ini = new int[capacidade];
+            cores[y] = crs = new int[capacidade];
+        }
+        System.arraycopy(iniciosTemporarios, 0, ini, 0, m);
+        System.arraycopy(coresTemporarias, 0, crs, 0, m);
+        quantidade[y] = m;
+    }
+
+    @Override
+    public void copiarLinha(int y, int[] destino, int deslocamento) {
+        for (int i = 0; i < quantidade[y]; i++) {
+            Arrays.fill(destino, deslocamento + inicios[y][i], deslocamento + fimTrecho(y, i) + 1, cores[y][i]);
+        }
+    }
+
+    // Recodifica a linha y a partir de pixels ARGB em origem[deslocamento .. deslocamento + largura)
+    public void gravarLinha(int y, int[] origem, int deslocamento) {
+        garantirTemporarios(largura);
+        int m = 0;
+
+        for (int x = 0; x < largura; x++) {
+            m = anexar(m, x, origem[deslocamento + x]);
+        }
+
+        inicios[y] = Arrays.copyOf(iniciosTemporarios, Math.max(m, CAPACIDADE_INICIAL));
+        cores[y] = Arrays.copyOf(coresTemporarias, Math.max(m, CAPACIDADE_INICIAL));
+        quantidade[y] = m;
+    }
+
+    public int quantidadeTrechos(int y) {
+        return quantidade[y];
+    }
+
+    public int inicioTrecho(int y, int trecho) {
+        return inicios[y][trecho];
+    }
+
+    public int fimTrecho(int y, int trecho) {
+        return (trecho + 1 < quantidade[y] ? inicios[y][trecho + 1] : largura) - 1;
+    }
+
+    public int corTrecho(int y, int trecho) {
+        return cores[y][trecho];
+    }
+
+    // Índice do trecho que contém x na linha y (busca binária pelos inícios)
+    public int trechoEm(int x, int y) {
+        int[] ini = inicios[y];
+        int baixo = 0;
+        int alto = quantidade[y] - 1;
+
+        while (baixo < alto) {
+            int meio = (baixo + alto + 1) >>> 1;
+            if (ini[meio] <= x) {
+                baixo = meio;
+            } else {
+                alto = meio - 1;
+            }
+        }
+
+        return baixo;
+    }
+
+    public long getTotalTrechos() {
+        long total = 0;
+        for (int n : quantidade) {
+            total += n;
+        }
+        return total;
+    }
+
+    // Acrescenta um trecho aos temporários, estendendo o anterior se a cor for a mesma
+    private int anexar(int m, int inicio, int cor) {
+        if (m > 0 && coresTemporarias[m - 1] == cor) {
+            return m;
+        }
+        iniciosTemporarios[m] = inicio;
+        coresTemporarias[m] = cor;
+        return m + 1;
+    }
+
+    private void garantirTemporarios(int capacidade) {
+        if (iniciosTemporarios.length < capacidade) {
+            iniciosTemporarios = new int[capacidade];
+            coresTemporarias = new int[capacidade];
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.imageio.ImageIO;
+
+// Lê uma trilha gravada pelo GravadorTrilha e renderiza qualquer frame (ou intervalo) sobre a imagem base
+class ReprodutorTrilha {
+    private int largura;
+    private int altura;
+    private int cor;
+    private String caminhoImagemBase;
+    private long[] inicios;
+    private int[] comprimentos;
+    private int totalFrames;
+    private RasterPixel base;
+
+    public ReprodutorTrilha(String caminhoTrilha) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(caminhoTrilha), 1 << 16))) {
+
+            if (entrada.readInt() != GravadorTrilha.ASSINATURA) {
+                throw new IOException("Arquivo não é uma trilha de Flood Fill: " + caminhoTrilha);
+            }
+
+            largura = entrada.readInt();
+            altura = entrada.readInt();
+            cor = entrada.readInt();
+            caminhoImagemBase = entrada.readUTF();
+
+            inicios = new long[1024];
+            comprimentos = new int[1024];
+            long indiceAnterior = 0;
+
+            while (true) {
+                long valor;
+                try {
+                    valor = lerVarint(entrada);
+                } catch (EOFException fim) {
+                    break;
+                }
+
+                long zigzag = valor >>> 1;
+                long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+                int comprimento = (valor & 1) == 0 ? 1 : (int) lerVarint(entrada) + 2;
+
+                if (totalFrames == inicios.length) {
+                    inicios = Arrays.copyOf(inicios, totalFrames * 2);
+                    comprimentos = Arrays.copyOf(comprimentos, totalFrames * 2);
+                }
+
+                indiceAnterior += delta;
+                inicios[totalFrames] = indiceAnterior;
+                comprimentos[totalFrames] = comprimento;
+                totalFrames++;
+            }
+        }
+    }
+
+    public int getTotalFrames() {
+        return totalFrames;
+    }
+
+    // Imagem base com os eventos 1..frame aplicados
+    public RasterPixel renderizarFrame(int frame) throws IOException {
+        RasterPixel imagem = copiarBase();
+        aplicarEventos(imagem, 0, Math.min(frame, totalFrames));
+        return imagem;
+    }
+
+    // Salva os frames [inicio, fim] como PNG, aplicando os eventos de forma incremental
+    public void salvarFrames(int inicio, int fim, ProcessadorImagem processador, String tipo) throws IOException {
+        fim = Math.min(fim, totalFrames);
+        RasterPixel imagem = renderizarFrame(inicio);
+
+        processador.salvarImagemAnimacao(imagem, inicio, tipo);
+        for (int frame = inicio + 1; frame <= fim; frame++) {
+            aplicarEventos(imagem, frame - 1, frame);
+            processador.salvarImagemAnimacao(imagem, frame, tipo);
+        }
+    }
+
+    private void aplicarEventos(RasterPixel imagem, int de, int ate) {
+        for (int i = de; i < ate; i++) {
+            int x = (int) (inicios[i] % largura);
+            int y = (int) (inicios[i] / largura);
+            imagem.preencherTrecho(y, x, x + comprimentos[i] - 1, cor);
+        }
+    }
+
+    private RasterPixel copiarBase() throws IOException {
+        if (base == null) {
+            BufferedImage imagem = ImageIO.read(new File(caminhoImagemBase));
+            if (imagem == null) {
+                throw new IOException("Não foi possível carregar a imagem base: " + caminhoImagemBase);
+            }
+            base = RasterPixel.envolver(imagem);
+            if (base.getLargura() != largura || base.getAltura() != altura) {
+                throw new IOException("Imagem base com dimensões diferentes da trilha: " + caminhoImagemBase);
+            }
+        }
+
+        RasterPixel copia = new RasterPixel(largura, altura);
+        for (int y = 0; y < altura; y++) {
+            base.copiarLinha(y, copia.getDados(), y * largura);
+        }
+        return copia;
+    }
+
+    private static long lerVarint(DataInputStream entrada) throws IOException {
+        long valor = 0;
+        int deslocamento = 0;
+        int b;
+        do {
+            b = entrada.readUnsignedByte();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+}
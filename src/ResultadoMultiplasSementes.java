@@ -0,0 +1,53 @@
+// Resultado de um preenchimento com várias sementes: pixels pintados por semente e, para
+// cada uma, qual semente ficou com a sua região (a primeira da lista que a alcançou)
+class ResultadoMultiplasSementes {
+    public static final int SEMENTE_INVALIDA = -1;
+
+    private long[] pixelsPorSemente;
+    private int[] vencedoraPorSemente;
+    private int numeroRegioes;
+
+    public ResultadoMultiplasSementes(long[] pixelsPorSemente, int[] vencedoraPorSemente, int numeroRegioes) {
+        this.pixelsPorSemente = pixelsPorSemente;
+        this.vencedoraPorSemente = vencedoraPorSemente;
+        this.numeroRegioes = numeroRegioes;
+    }
+
+    // Zero quando a semente caiu numa região já pintada por outra ou fora da imagem
+    public long obterPixels(int semente) {
+        return pixelsPorSemente[semente];
+    }
+
+    // Índice da semente cuja cor foi aplicada na região, ou SEMENTE_INVALIDA
+    public int obterVencedora(int semente) {
+        return vencedoraPorSemente[semente];
+    }
+
+    public boolean foiDescartada(int semente) {
+        return vencedoraPorSemente[semente] != semente;
+    }
+
+    public int getQuantidadeSementes() {
+        return pixelsPorSemente.length;
+    }
+
+    public int getNumeroRegioes() {
+        return numeroRegioes;
+    }
+
+    public long getTotalPixels() {
+        long total = 0;
+        for (long pixels : pixelsPorSemente) {
+            total += pixels;
+        }
+        return total;
+    }
+
+    public long[] getPixelsPorSemente() {
+        return pixelsPorSemente;
+    }
+
+    public int[] getVencedoraPorSemente() {
+        return vencedoraPorSemente;
+    }
+}
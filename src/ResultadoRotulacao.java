@@ -0,0 +1,56 @@
+// Mapa de rótulos (um id de componente por pixel) e estatísticas por componente
+class ResultadoRotulacao {
+    private int largura;
+    private int altura;
+    private int[] rotulos;
+    private int numeroComponentes;
+    private int[] contagemPorRotulo;
+    private int[] corPorRotulo;
+
+    public ResultadoRotulacao(int largura, int altura, int[] rotulos, int numeroComponentes,
+                              int[] contagemPorRotulo, int[] corPorRotulo) {
+        this.largura = largura;
+        this.altura = altura;
+        this.rotulos = rotulos;
+        this.numeroComponentes = numeroComponentes;
+        this.contagemPorRotulo = contagemPorRotulo;
+        this.corPorRotulo = corPorRotulo;
+    }
+
+    public int obterRotulo(int x, int y) {
+        return rotulos[y * largura + x];
+    }
+
+    public int obterContagem(int rotulo) {
+        return contagemPorRotulo[rotulo];
+    }
+
+    public int obterCor(int rotulo) {
+        return corPorRotulo[rotulo];
+    }
+
+    public int getLargura() {
+        return largura;
+    }
+
+    public int getAltura() {
+        return altura;
+    }
+
+    // Rótulos linha a linha, índice y * largura + x
+    public int[] getRotulos() {
+        return rotulos;
+    }
+
+    public int getNumeroComponentes() {
+        return numeroComponentes;
+    }
+
+    public int[] getContagemPorRotulo() {
+        return contagemPorRotulo;
+    }
+
+    public int[] getCorPorRotulo() {
+        return corPorRotulo;
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.stream.IntStream;
+
+// Rotulação de componentes conectados (4-vizinhança, mesma cor) em duas passadas com union-find.
+// A primeira passada pode ser dividida em faixas de linhas processadas em paralelo.
+class RotuladorComponentes {
+    private int numeroFaixas;
+
+    public RotuladorComponentes() {
+        this(1);
+    }
+
+    public RotuladorComponentes(int numeroFaixas) {
+        this.numeroFaixas = Math.max(1, numeroFaixas);
+    }
+
+    public ResultadoRotulacao rotular(int[][] matriz) {
+        return rotular(new MatrizPixelArray(matriz));
+    }
+
+    public ResultadoRotulacao rotular(MatrizPixel matriz) {
+        int largura = matriz.getLargura();
+        int altura = matriz.getAltura();
+        int faixas = Math.min(numeroFaixas, altura);
+        int alturaFaixa = (altura + faixas - 1) / faixas;
+
+        // pai[i] <= i sempre: a raiz de cada conjunto é o menor índice do componente
+        int[] pai = new int[largura * altura];
+
+        // Passada 1: uniões dentro de cada faixa (faixas não compartilham índices)
+        IntStream faixasStream = IntStream.range(0, faixas);
+        if (faixas > 1) {
+            faixasStream = faixasStream.parallel();
+        }
+        faixasStream.forEach(f -> {
+            int yInicio = f * alturaFaixa;
+            int yFim = Math.min(yInicio + alturaFaixa, altura);
+            unirFaixa(matriz, pai, largura, yInicio, yFim);
+        });
+
+        // Costura das bordas entre faixas
+        for (int f = 1; f < faixas; f++) {
+            int y = f * alturaFaixa;
+            if (y >= altura) {
+                break;
+            }
+            for (int x = 0; x < largura; x++) {
+                if (matriz.obterCor(x, y) == matriz.obterCor(x, y - 1)) {
+                    unir(pai, y * largura + x, (y - 1) * largura + x);
+                }
+            }
+        }
+
+        // Passada 2: em ordem de índice, a raiz de cada pixel já foi resolvida antes dele.
+        // Os rótulos ficam codificados como -(rotulo + 1) no próprio vetor pai.
+        int numeroComponentes = 0;
+        for (int i = 0; i < pai.length; i++) {
+            if (pai[i] == i) {
+                pai[i] = -(numeroComponentes + 1);
+                numeroComponentes++;
+            } else {
+                pai[i] = pai[pai[i]];
+            }
+        }
+
+        int[] contagem = new int[numeroComponentes];
+        int[] cores = new int[numeroComponentes];
+        for (int i = 0; i < pai.length; i++) {
+            int rotulo = -pai[i] - 1;
+            pai[i] = rotulo;
+            if (contagem[rotulo]++ == 0) {
+                cores[rotulo] = matriz.obterCor(i % largura, i / largura);
+            }
+        }
+
+        return new ResultadoRotulacao(largura, altura, pai, numeroComponentes, contagem, cores);
+    }
+
+    private void unirFaixa(MatrizPixel matriz, int[] pai, int largura, int yInicio, int yFim) {
+        for (int y = yInicio; y < yFim; y++) {
+            int corAnterior = 0;
+            for (int x = 0; x < largura; x++) {
+                int i = y * largura + x;
+                int cor = matriz.obterCor(x, y);
+                pai[i] = i;
+
+                if (x > 0 && cor == corAnterior) {
+                    unir(pai, i, i - 1);
+                }
+                if (y > yInicio && cor == matriz.obterCor(x, y - 1)) {
+                    unir(pai, i, i - largura);
+                }
+                corAnterior = cor;
+            }
+        }
+    }
+
+    private static int encontrarRaiz(int[] pai, int i) {
+        while (pai[i] != i) {
+            pai[i] = pai[pai[i]];
+            i = pai[i];
+        }
+        return i;
+    }
+
+    // A raiz maior passa a apontar para a menor, mantendo pai[i] <= i
+    private static void unir(int[] pai, int a, int b) {
+        int raizA = encontrarRaiz(pai, a);
+        int raizB = encontrarRaiz(pai, b);
+        if (raizA < raizB) {
+            pai[raizB] = raizA;
+        } else if (raizB < raizA) {
+            pai[raizA] = raizB;
+        }
+    }
+}
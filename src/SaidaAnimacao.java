@@ -0,0 +1,13 @@
+// Destino dos frames de animação gerados durante o preenchimento (uma instância por execução)
+interface SaidaAnimacao {
+    // Chamado a cada trecho [xInicio, xFim] da linha y pintado; frame é o número sequencial do evento
+    void registrarTrecho(MatrizPixel matriz, int y, int xInicio, int xFim, int frame);
+
+    default void registrarPixel(MatrizPixel matriz, int x, int y, int frame) {
+        registrarTrecho(matriz, y, x, x, frame);
+    }
+
+    // Chamado uma vez ao fim do preenchimento
+    default void finalizar(MatrizPixel matriz) {
+    }
+}
@@ -0,0 +1,24 @@
+// Ponto inicial de um preenchimento com a sua própria cor de destino
+class Semente {
+    private int x;
+    private int y;
+    private int cor;
+
+    public Semente(int x, int y, int cor) {
+        this.x = x;
+        this.y = y;
+        this.cor = cor;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getCor() {
+        return cor;
+    }
+}